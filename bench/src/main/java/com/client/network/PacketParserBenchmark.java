@@ -0,0 +1,154 @@
+package com.client.network;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.client.ClientGameState;
+import com.client.protocol.FrameReader;
+import com.client.protocol.FrameWriter;
+import com.client.protocol.Opcode;
+import com.client.protocol.WireCodec;
+
+/**
+ * PacketParser pada pesan yang paling sering datang saat main: STATE tiap
+ * tick, EXPLOSION, dan MAP penuh (awal game / RESYNC), dalam bentuk teks
+ * (parse) maupun frame biner (parseFrame).
+ *
+ * Isinya meniru server: 4 player, ledakan range 3, map 13x13. Jalankan
+ * dengan -prof gc untuk melihat alokasi per pesan (gc.alloc.rate.norm).
+ * Event hasil decode langsung di-drain di thread yang sama, jadi yang diukur
+ * decode + penerapan ke ClientGameState seperti di render loop.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacketParserBenchmark {
+
+    private static final int MAP_SIZE = 13;
+
+    private ClientGameState gameState;
+    private PacketParser parser;
+    private final FrameReader reader = new FrameReader();
+
+    private String stateText;
+    private String explosionText;
+    private String mapText;
+    private byte[] stateFrame;
+    private byte[] explosionFrame;
+    private byte[] mapFrame;
+
+    @Setup
+    public void setup() {
+        gameState = new ClientGameState();
+        parser = new PacketParser(gameState);
+        parser.setReplySender(reply -> {
+        }); // ACK dibuang
+
+        stateText = "STATE;42.0;1,48.0,48.0,WALK,RIGHT#2,352.0,48.0,IDLE,DOWN"
+                + "#3,48.0,352.0,WALK,UP#4,352.0,352.0,IDLE,LEFT";
+        explosionText = "EXPLOSION;5,5;5,5,false;6,5,false;7,5,false;4,5,false;3,5,false"
+                + ";5,6,true;5,7,true;5,4,true;5,3,true";
+
+        int[][] map = sampleMap();
+        StringBuilder sb = new StringBuilder("MAP;").append(MAP_SIZE).append(';').append(MAP_SIZE).append(';');
+        for (int y = 0; y < MAP_SIZE; y++) {
+            for (int x = 0; x < MAP_SIZE; x++)
+                sb.append(map[x][y]).append(',');
+        }
+        mapText = sb.toString();
+
+        FrameWriter w = new FrameWriter();
+        WireCodec.beginState(w, 1, 42, 4);
+        WireCodec.writeStatePlayer(w, 1, 48, 48, 1, 3);
+        WireCodec.writeStatePlayer(w, 2, 352, 48, 0, 0);
+        WireCodec.writeStatePlayer(w, 3, 48, 352, 1, 1);
+        WireCodec.writeStatePlayer(w, 4, 352, 352, 0, 2);
+        w.endFrame();
+        stateFrame = w.toByteArray();
+
+        int[] parts = { 5, 5, 0, 6, 5, 0, 7, 5, 0, 4, 5, 0, 3, 5, 0, 5, 6, 1, 5, 7, 1, 5, 4, 1, 5, 3, 1 };
+        w.reset();
+        WireCodec.writeExplosion(w, 5, 5, parts, parts.length / 3);
+        explosionFrame = w.toByteArray();
+
+        w.reset();
+        WireCodec.writeMap(w, Opcode.MAP, map);
+        mapFrame = w.toByteArray();
+    }
+
+    // Map tetap (tanpa Random) supaya hasil antar run bisa dibandingkan
+    private static int[][] sampleMap() {
+        int[][] map = new int[MAP_SIZE][MAP_SIZE];
+        for (int x = 0; x < MAP_SIZE; x++) {
+            for (int y = 0; y < MAP_SIZE; y++) {
+                if (x == 0 || y == 0 || x == MAP_SIZE - 1 || y == MAP_SIZE - 1 || (x % 2 == 0 && y % 2 == 0))
+                    map[x][y] = 1;
+                else
+                    map[x][y] = (x * 7 + y * 3) % 10 < 7 ? 2 : 0;
+            }
+        }
+        return map;
+    }
+
+    // Frame disimpan lengkap dengan prefix panjang 2 byte, sama seperti di socket
+    private FrameReader frame(byte[] frame) {
+        return reader.wrap(frame, 2, frame.length - 2);
+    }
+
+    @Benchmark
+    public ClientGameState parseStateText() {
+        parser.parse(stateText);
+        gameState.drainEvents();
+        return gameState;
+    }
+
+    @Benchmark
+    public ClientGameState parseExplosionText() {
+        parser.parse(explosionText);
+        gameState.drainEvents();
+        gameState.clearExplosions(); // Jangan menumpuk antar invocation
+        return gameState;
+    }
+
+    @Benchmark
+    public ClientGameState parseMapText() {
+        parser.parse(mapText);
+        gameState.drainEvents();
+        return gameState;
+    }
+
+    @Benchmark
+    public ClientGameState parseStateFrame() {
+        parser.parseFrame(frame(stateFrame));
+        gameState.drainEvents();
+        return gameState;
+    }
+
+    @Benchmark
+    public ClientGameState parseExplosionFrame() {
+        parser.parseFrame(frame(explosionFrame));
+        gameState.drainEvents();
+        gameState.clearExplosions();
+        return gameState;
+    }
+
+    @Benchmark
+    public ClientGameState parseMapFrame() {
+        parser.parseFrame(frame(mapFrame));
+        gameState.drainEvents();
+        return gameState;
+    }
+}
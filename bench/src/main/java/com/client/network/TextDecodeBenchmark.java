@@ -0,0 +1,172 @@
+package com.client.network;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.client.entities.VisualPlayer;
+import com.client.protocol.CommandTable;
+import com.client.protocol.Opcode;
+import com.client.protocol.SnapshotRing;
+import com.client.protocol.TextCursor;
+import com.client.protocol.Wire;
+
+/**
+ * Decode teks saja (tanpa efek ke ClientGameState): cara lama PacketParser
+ * (split + switch String + parseInt / parseDouble / valueOf) dibandingkan
+ * TextCursor + CommandTable. Keduanya menghasilkan baris snapshot / tile yang
+ * sama, jadi selisih waktu & gc.alloc.rate.norm murni biaya tokenizing.
+ *
+ * java -jar bench/target/benchmarks.jar TextDecodeBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextDecodeBenchmark {
+
+    private static final CommandTable COMMANDS = new CommandTable(
+            new String[] { "STATE", "EXPLOSION", "MAP" }, new int[] { Opcode.STATE, Opcode.EXPLOSION, Opcode.MAP });
+
+    private final String state = "STATE;42;1,48,48,WALK,RIGHT#2,352,48,IDLE,DOWN#3,48,352,WALK,UP#4,352,352,IDLE,LEFT|||";
+    private final String explosion = "EXPLOSION;5,5;5,5,false;6,5,false;7,5,false;4,5,false;3,5,false"
+            + ";5,6,true;5,7,true;5,4,true;5,3,true";
+    private final String map = sampleMap();
+
+    private final TextCursor cursor = new TextCursor();
+    private final int[] rows = new int[SnapshotRing.STRIDE * 4];
+    private final int[] parts = new int[3 * 16];
+
+    private static String sampleMap() {
+        StringBuilder sb = new StringBuilder("MAP;13;13;");
+        for (int y = 0; y < 13; y++) {
+            for (int x = 0; x < 13; x++)
+                sb.append((x * 7 + y * 3) % 3).append(',');
+        }
+        return sb.toString();
+    }
+
+    // ===================== CARA LAMA (split) =======================
+
+    @Benchmark
+    public int stateSplit() {
+        String[] parts = state.split(";", 2);
+        if (!parts[0].equals("STATE"))
+            return -1;
+        String[] section = parts[1].replace("|||", "").split(";", 2);
+        double time = Double.parseDouble(section[0]);
+        int count = 0;
+        for (String p : section[1].split("#")) {
+            String[] v = p.split(",");
+            int o = count * SnapshotRing.STRIDE;
+            rows[o] = Integer.parseInt(v[0]);
+            rows[o + 1] = (int) Double.parseDouble(v[1]);
+            rows[o + 2] = (int) Double.parseDouble(v[2]);
+            rows[o + 3] = VisualPlayer.State.valueOf(v[3]).ordinal();
+            rows[o + 4] = VisualPlayer.Direction.valueOf(v[4]).ordinal();
+            count++;
+        }
+        return count + (int) time;
+    }
+
+    @Benchmark
+    public int explosionSplit() {
+        String[] sections = explosion.split(";", 2)[1].split(";");
+        String[] center = sections[0].split(",");
+        int count = Integer.parseInt(center[0]) + Integer.parseInt(center[1]);
+        for (int i = 1; i < sections.length; i++) {
+            String[] p = sections[i].split(",");
+            int o = (i - 1) * 3;
+            parts[o] = Integer.parseInt(p[0]);
+            parts[o + 1] = Integer.parseInt(p[1]);
+            parts[o + 2] = Boolean.parseBoolean(p[2]) ? 1 : 0;
+            count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int[][] mapSplit() {
+        String[] tokens = map.split(";", 2)[1].split(";");
+        int r = Integer.parseInt(tokens[0]);
+        int c = Integer.parseInt(tokens[1]);
+        String[] tiles = tokens[2].split(",");
+        int[][] grid = new int[r][c];
+        for (int i = 0; i < tiles.length; i++)
+            grid[i % r][i / r] = Integer.parseInt(tiles[i]);
+        return grid;
+    }
+
+    // ===================== CURSOR =======================
+
+    @Benchmark
+    public int stateCursor() {
+        TextCursor c = cursor.wrap(state);
+        if (c.readCommand(COMMANDS) != Opcode.STATE)
+            return -1;
+        double time = c.readFixed();
+        c.expect(';');
+        int count = 0;
+        do {
+            int o = count * SnapshotRing.STRIDE;
+            rows[o] = c.readInt();
+            c.expect(',');
+            rows[o + 1] = (int) c.readFixed();
+            c.expect(',');
+            rows[o + 2] = (int) c.readFixed();
+            c.expect(',');
+            rows[o + 3] = c.readIndex(Wire.STATES);
+            c.expect(',');
+            rows[o + 4] = c.readIndex(Wire.DIRS);
+            count++;
+        } while (c.skip('#'));
+        return count + (int) time;
+    }
+
+    @Benchmark
+    public int explosionCursor() {
+        TextCursor c = cursor.wrap(explosion);
+        if (c.readCommand(COMMANDS) != Opcode.EXPLOSION)
+            return -1;
+        int count = c.readInt();
+        c.expect(',');
+        count += c.readInt();
+        for (int i = 0; c.skip(';'); i++) {
+            int o = i * 3;
+            parts[o] = c.readInt();
+            c.expect(',');
+            parts[o + 1] = c.readInt();
+            c.expect(',');
+            parts[o + 2] = c.readBoolean() ? 1 : 0;
+            count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int[][] mapCursor() {
+        TextCursor c = cursor.wrap(map);
+        if (c.readCommand(COMMANDS) != Opcode.MAP)
+            return null;
+        int r = c.readInt();
+        c.expect(';');
+        int cols = c.readInt();
+        c.expect(';');
+        int[][] grid = new int[r][cols];
+        for (int i = 0; i < r * cols && c.hasRemaining(); i++) {
+            grid[i % r][i / r] = c.readInt();
+            c.skip(',');
+        }
+        return grid;
+    }
+}
@@ -0,0 +1,225 @@
+package com.client.server;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.client.protocol.Opcode;
+import com.client.protocol.Wire;
+import com.client.server.SimpleTestServer.ClientHandler;
+import com.client.server.SimpleTestServer.Room;
+
+/**
+ * Macrobenchmark simulasi tanpa socket: ribuan Room dibuat langsung dengan
+ * transport di memori (NullConnection), diberi input dari trace yang sama
+ * untuk setiap run, lalu di-tick secepat mungkin secara round robin.
+ *
+ * Satu operasi = satu tick satu room, jadi:
+ * - skor throughput (ops/s) = room-tick per detik per core (tambah -t N untuk
+ *   beberapa core, tiap thread punya room sendiri)
+ * - gc.alloc.rate.norm dari -prof gc = alokasi per room-tick
+ *
+ * Yang diukur seluruh Room.tick(): movement, timer (bom, arena), rules / game
+ * over, encode snapshot & antrian keluar. Game yang selesai langsung
+ * di-restart setelah GAME_OVER terkirim, seperti host yang menekan START lagi.
+ * Rincian per fase (TickMetrics) satu room dicetak di akhir trial.
+ *
+ * java -jar bench/target/benchmarks.jar RoomTickBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoomTickBenchmark {
+
+    @Param({ "1000" })
+    public int rooms;
+
+    @Param({ "4" })
+    public int players;
+
+    @Param({ "binary", "text" })
+    public String proto;
+
+    private static final int TRACE_TICKS = 4096; // ~65 detik game, lebih panjang dari satu game
+    private static final int ACK_INTERVAL = 3; // Sama dengan PacketParser
+
+    private SimRoom[] simRooms;
+    private InputTrace trace;
+    private int next = 0;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setup() {
+        // Room mencetak [TICK] / RESTARTING; ribuan room akan membanjiri output JMH
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        trace = InputTrace.randomWalk(42, players, TRACE_TICKS);
+        simRooms = new SimRoom[rooms];
+        for (int i = 0; i < rooms; i++)
+            simRooms[i] = new SimRoom("sim-" + i, players, proto.equals("binary"), (i * 97) % TRACE_TICKS);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+        TickMetrics.Summary s = simRooms[0].room.tickSummary();
+        if (s != null)
+            System.out.println("\n[TICK] " + simRooms[0].room.name + " " + s);
+    }
+
+    @Benchmark
+    public boolean roomTick() {
+        SimRoom r = simRooms[next];
+        if (++next == simRooms.length)
+            next = 0;
+        return r.tick(trace);
+    }
+
+    // ===================== ROOM + CLIENT PALSU =======================
+
+    static final class SimRoom {
+        final Room room;
+        private final ClientHandler[] clients;
+        private final NullConnection[] connections;
+        private final int traceOffset;
+        private int tick = 0;
+
+        SimRoom(String name, int players, boolean binary, int traceOffset) {
+            this.room = new Room(name, null);
+            this.traceOffset = traceOffset;
+            this.clients = new ClientHandler[players];
+            this.connections = new NullConnection[players];
+            for (int i = 0; i < players; i++) {
+                connections[i] = new NullConnection();
+                clients[i] = new ClientHandler(connections[i]);
+                if (binary)
+                    clients[i].handleMessage(Wire.HELLO_BINARY);
+                room.addPlayer(clients[i]); // id = urutan masuk (0..players-1)
+            }
+            room.post(room::restartGame); // Seperti START_GAME dari host
+        }
+
+        boolean tick(InputTrace trace) {
+            trace.feed(room, (traceOffset + tick) % trace.ticks);
+            boolean running = room.tick();
+            if (++tick % ACK_INTERVAL == 0) {
+                // Client biner ACK snapshot terakhir (tanpa jeda jaringan)
+                for (int i = 0; i < clients.length; i++) {
+                    int seq = connections[i].lastStateSeq;
+                    if (clients[i].isBinary() && seq >= 0)
+                        clients[i].ackedSeq = seq;
+                }
+            }
+            if (room.isGameOver() && room.timers.size() == 0)
+                room.post(room::restartGame); // GAME_OVER sudah terkirim
+            return running;
+        }
+    }
+
+    /** Transport di memori: hanya menghitung byte dan mencatat seq STATE terakhir. */
+    static final class NullConnection implements Connection {
+        long bytes = 0;
+        int lastStateSeq = -1;
+
+        @Override
+        public void enqueue(byte[] data, boolean conflatable) {
+            bytes += data.length;
+            // Frame biner: [u16 panjang][opcode][seq u16 ...] untuk STATE / STATE_DELTA
+            if (data.length >= 5 && (data[2] == Opcode.STATE || data[2] == Opcode.STATE_DELTA))
+                lastStateSeq = ((data[3] & 0xFF) << 8) | (data[4] & 0xFF);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String getRemoteAddress() {
+            return "memory";
+        }
+
+        @Override
+        public OutboundQueue outbound() {
+            return null;
+        }
+    }
+
+    // ===================== TRACE INPUT =======================
+
+    /**
+     * Input per tick, sudah dalam bentuk InputQueue (gerak & place bomb),
+     * disimpan datar: input tick t ada di inputs[start[t] .. start[t + 1]).
+     * Dibuat dari seed, jadi setiap run memutar trace yang sama.
+     */
+    static final class InputTrace {
+        private static final int[] KEYS = { PlayerTable.UP, PlayerTable.DOWN, PlayerTable.LEFT, PlayerTable.RIGHT };
+
+        final int ticks;
+        private final int[] start;
+        private final long[] inputs;
+
+        private InputTrace(int ticks, int[] start, long[] inputs) {
+            this.ticks = ticks;
+            this.start = start;
+            this.inputs = inputs;
+        }
+
+        /** Random walk seperti bot load test: ganti arah tiap 150-600 ms, kadang taruh bom. */
+        static InputTrace randomWalk(long seed, int players, int ticks) {
+            SplittableRandom random = new SplittableRandom(seed);
+            int[] heldKey = new int[players];
+            int[] nextChange = new int[players];
+            int[] start = new int[ticks + 1];
+            long[] inputs = new long[ticks];
+            int n = 0;
+            for (int t = 0; t < ticks; t++) {
+                start[t] = n;
+                for (int p = 0; p < players; p++) {
+                    if (t < nextChange[p])
+                        continue;
+                    if (n + 3 > inputs.length)
+                        inputs = Arrays.copyOf(inputs, inputs.length * 2);
+                    if (heldKey[p] != 0)
+                        inputs[n++] = InputQueue.move(p, heldKey[p], false);
+                    int pick = random.nextInt(KEYS.length + 1);
+                    heldKey[p] = pick < KEYS.length ? KEYS[pick] : 0;
+                    if (heldKey[p] != 0)
+                        inputs[n++] = InputQueue.move(p, heldKey[p], true);
+                    if (random.nextInt(100) < 15)
+                        inputs[n++] = InputQueue.placeBomb(p);
+                    nextChange[p] = t + Room.ticksFor((150 + random.nextInt(450)) / 1000.0);
+                }
+            }
+            start[ticks] = n;
+            return new InputTrace(ticks, start, Arrays.copyOf(inputs, n));
+        }
+
+        void feed(Room room, int tick) {
+            for (int i = start[tick], end = start[tick + 1]; i < end; i++)
+                room.offerInput(inputs[i]);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.client.server;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.client.server.SimpleTestServer.Bomb;
+import com.client.server.SimpleTestServer.CollisionHandler;
+import com.client.server.SimpleTestServer.MapGenerator;
+import com.client.server.SimpleTestServer.Room;
+
+/**
+ * Hot path simulasi server di dalam tick: cek collision movement, ray
+ * ledakan bom, dan pembuatan map saat game dimulai.
+ *
+ * Jalankan dengan -prof gc untuk alokasi per operasi.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimulationBenchmark {
+
+    private static final int TILE_SIZE = 32;
+    private static final int MAP_SIZE = 13;
+
+    // Map tetap (tanpa Random) supaya hasil antar run bisa dibandingkan
+    static int[][] sampleMap() {
+        int[][] map = new int[MAP_SIZE][MAP_SIZE];
+        for (int x = 0; x < MAP_SIZE; x++) {
+            for (int y = 0; y < MAP_SIZE; y++) {
+                if (x == 0 || y == 0 || x == MAP_SIZE - 1 || y == MAP_SIZE - 1 || (x % 2 == 0 && y % 2 == 0))
+                    map[x][y] = 1;
+                else
+                    map[x][y] = (x * 7 + y * 3) % 10 < 7 ? 2 : 0;
+            }
+        }
+        return map;
+    }
+
+    // ===================== COLLISION =======================
+
+    @State(Scope.Thread)
+    public static class Collision {
+        CollisionHandler handler;
+        PlayerTable players;
+        TileMap map;
+        // Posisi uji: sapuan sepanjang map, termasuk yang menabrak tembok
+        final double[] xs = new double[64];
+        final double[] ys = new double[64];
+        int next = 0;
+
+        @Setup
+        public void setup() {
+            map = new TileMap(sampleMap());
+            handler = new CollisionHandler(map, TILE_SIZE);
+            players = new PlayerTable();
+            players.add(1, 32, 32);
+            players.add(2, 352, 32);
+            players.add(3, 32, 352);
+            players.add(4, 352, 352);
+            for (int i = 0; i < xs.length; i++) {
+                xs[i] = 32 + (i * 37) % (TILE_SIZE * (MAP_SIZE - 2));
+                ys[i] = 32 + (i * 53) % (TILE_SIZE * (MAP_SIZE - 2));
+            }
+        }
+
+        int nextIndex() {
+            return next = (next + 1) & (xs.length - 1);
+        }
+    }
+
+    @Benchmark
+    public boolean checkCollision(Collision c) {
+        int i = c.nextIndex();
+        return c.handler.checkCollision(c.xs[i], c.ys[i]);
+    }
+
+    @Benchmark
+    public boolean checkPlayerCollision(Collision c) {
+        int i = c.nextIndex();
+        return c.handler.checkPlayerCollision(c.xs[i], c.ys[i], 0, c.players);
+    }
+
+    @Benchmark
+    public int rayLength(Collision c) {
+        // Empat arah dari satu tile kosong, range 3 (bom dengan FIRE_UP)
+        TileMap m = c.map;
+        return m.rayLength(3, 1, 1, 0, 3) + m.rayLength(3, 1, -1, 0, 3)
+                + m.rayLength(3, 1, 0, 1, 3) + m.rayLength(3, 1, 0, -1, 3);
+    }
+
+    // ===================== LEDAKAN BOM =======================
+
+    /**
+     * Ledakan mengubah map (tembok pecah, item muncul), jadi room dibuat ulang
+     * per invocation. Setup tidak ikut diukur, tapi operasinya pendek: angka
+     * absolut sedikit bias, pakai untuk membandingkan antar perubahan.
+     */
+    @State(Scope.Thread)
+    public static class Explosion {
+        Room room;
+        Bomb bomb;
+
+        @Setup(Level.Invocation)
+        public void setup() {
+            room = new Room("bench", null);
+            room.initGameMap();
+            // Pojok spawn selalu kosong (lihat MapGenerator); FIRE_UP supaya range 3
+            int s = room.players.add(1, TILE_SIZE, TILE_SIZE);
+            room.players.firePowerUp[s] = true;
+            room.placeBomb(1);
+            bomb = room.bombAt(1, 1);
+        }
+    }
+
+    @Benchmark
+    public Room bombExplode(Explosion e) {
+        e.room.detonate(e.bomb);
+        return e.room;
+    }
+
+    // ===================== MAP GENERATOR =======================
+
+    @State(Scope.Thread)
+    public static class Grid {
+        int[][] grid;
+
+        @Setup
+        public void setup() {
+            grid = sampleMap();
+        }
+    }
+
+    @Benchmark
+    public int[][] generateMapArray() {
+        return MapGenerator.generateMapArray(MAP_SIZE, MAP_SIZE);
+    }
+
+    @Benchmark
+    public String convertToString(Grid m) {
+        return MapGenerator.convertToString(m.grid);
+    }
+}
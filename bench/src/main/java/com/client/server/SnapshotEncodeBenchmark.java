@@ -0,0 +1,80 @@
+package com.client.server;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.client.protocol.SnapshotRing;
+
+/**
+ * Encode snapshot STATE seperti di akhir setiap tick (Room.broadcastSnapshot):
+ * keyframe teks & biner, dan delta biner terhadap snapshot sebelumnya. Packet
+ * dibuat baru tiap invocation karena hasil encode di-cache per packet.
+ *
+ * Jalankan dengan -prof gc: alokasi per snapshot ikut menentukan laju GC
+ * server saat banyak room jalan bersamaan.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotEncodeBenchmark {
+
+    @Param({ "2", "4" })
+    public int players;
+
+    private int[] previous;
+    private int[] current;
+    private int seq = 0;
+
+    @Setup
+    public void setup() {
+        previous = new int[players * SnapshotRing.STRIDE];
+        current = new int[players * SnapshotRing.STRIDE];
+        for (int i = 0; i < players; i++) {
+            int o = i * SnapshotRing.STRIDE;
+            previous[o] = i + 1;
+            previous[o + 1] = 48 + i * 96;
+            previous[o + 2] = 48 + (i % 2) * 320;
+            previous[o + 3] = PlayerTable.STATE_WALK;
+            previous[o + 4] = PlayerTable.DIR_RIGHT;
+        }
+        System.arraycopy(previous, 0, current, 0, current.length);
+        // Tick biasa: sebagian player bergeser beberapa pixel, satu berhenti
+        current[1] += 3;
+        current[SnapshotRing.STRIDE + 2] -= 3;
+        current[SnapshotRing.STRIDE + 3] = PlayerTable.STATE_IDLE;
+    }
+
+    private int nextSeq() {
+        return seq = (seq + 1) & SnapshotRing.SEQ_MASK;
+    }
+
+    @Benchmark
+    public byte[] keyframeText() {
+        return Packet.state(nextSeq(), 42, current, players).textLine();
+    }
+
+    @Benchmark
+    public byte[] keyframeFrame() {
+        return Packet.state(nextSeq(), 42, current, players).frame();
+    }
+
+    @Benchmark
+    public byte[] deltaFrame() {
+        int s = nextSeq();
+        return Packet.stateDelta(s, (s - 1) & SnapshotRing.SEQ_MASK, 42, previous, players, current, players).frame();
+    }
+}
@@ -85,8 +85,8 @@ jar cvfm Client.jar manifest_client.txt -C bin .
 echo.
 echo ------------------------------------------
 
-:: Bikin Server.jar (Khusus folder server)
-jar cvfm Server.jar manifest_server.txt -C bin com/client/server
+:: Bikin Server.jar (Khusus folder server + protocol biner yang dipakai bersama client)
+jar cvfm Server.jar manifest_server.txt -C bin com/client/server -C bin com/client/protocol
 
 echo.
 echo ==========================================
@@ -98,5 +98,6 @@ echo java --module-path "%JAVAFX_LIB%" --add-modules javafx.controls,javafx.fxml
 echo.
 echo Cara menjalankan Server:
 echo java -jar Server.jar
+echo   (opsi: --io=nio^|blocking  --threads=platform^|virtual  --port=5000)
 echo.
 pause
\ No newline at end of file
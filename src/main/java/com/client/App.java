@@ -4,6 +4,7 @@ import java.io.IOException;
 
 import com.client.network.ClientNetworkManager;
 import com.client.network.InputSender;
+import com.client.render.Assets;
 import com.client.render.GameCanvas;
 import com.client.ui.LoginScene;
 import com.client.ui.SceneManager;
@@ -30,6 +31,7 @@ public class App extends Application {
         SceneManager.setStage(stage);
 
         gameState = new ClientGameState();
+        Assets.preload(); // Decode semua gambar sekarang, bukan saat paket pertama datang
 
         LoginScene login = new LoginScene(this::tryConnect);
         stage.setScene(login.getScene());
@@ -109,7 +111,7 @@ public class App extends Application {
 
         // 3. Bersihkan state client (opsional, biar bersih saat main lagi)
         if (gameState != null) {
-            gameState.players.clear(); 
+            gameState.clearPlayers();
         }
 
         // 4. Pindah Scene kembali ke Lobby
@@ -1,14 +1,14 @@
     package com.client;
 
     import java.util.ArrayList;
+    import java.util.Arrays;
     import java.util.List;
-    import java.util.concurrent.CopyOnWriteArrayList;
     import java.util.function.Consumer;
 
     import com.client.entities.VisualBomb;
     import com.client.entities.VisualExplosion;
     import com.client.entities.VisualItem;
-    import com.client.entities.VisualPlayer;
+    import com.client.network.GameEventQueue;
 
     public class ClientGameState {
 
@@ -24,10 +24,16 @@
         private int myPlayerId = -1;
         private int hostPlayerId = -1;
         private final List<Integer> roomPlayerIds = new ArrayList<>(); 
-        final List<VisualPlayer> players = new CopyOnWriteArrayList<>();
-        private final List<VisualBomb> bombs = new CopyOnWriteArrayList<>();
-        private final List<VisualExplosion> explosions = new CopyOnWriteArrayList<>();
-        private final List<VisualItem> items = new CopyOnWriteArrayList<>();
+        // Entity & map hanya disentuh thread FX: event dari network masuk lewat events
+        // dan diterapkan render loop di awal frame (drainEvents)
+        private final GameEventQueue events = new GameEventQueue(1024);
+        private final PlayerRegistry players = new PlayerRegistry();
+        // Bom & item: maksimal satu per tile, di-index koordinat tile.
+        // Ledakan: array rapat, yang selesai ditimpa ledakan terakhir (swap-remove)
+        private final TileSlots<VisualBomb> bombs = new TileSlots<>();
+        private final TileSlots<VisualItem> items = new TileSlots<>();
+        private VisualExplosion[] explosions = new VisualExplosion[64];
+        private int explosionCount = 0;
         private final List<String> availableRooms = new ArrayList<>();
         private Consumer<List<String>> onRoomListUpdate; 
         private Consumer<Void> onRoomStateUpdate;
@@ -35,6 +41,11 @@
     private int shrinkLeft, shrinkRight, shrinkTop, shrinkBottom;
     private double shrinkTimer = 0; // Timer untuk durasi efek visual
 
+        public GameEventQueue getEvents() { return events; }
+
+        // Dipanggil render loop (thread FX) di awal setiap frame
+        public void drainEvents() { events.drain(this); }
+
         // --- METHODS DEBUG BARU ---
         public boolean isDebugMode() { return debugMode; }
         public void toggleDebug() { this.debugMode = !this.debugMode; }
@@ -42,11 +53,21 @@
         // ... (Sisa method updateVisuals lama, saya update isinya sedikit untuk bersihkan ledakan) ...
         
         public void updateVisuals(double dt) {
-            for (VisualPlayer p : players) p.update(dt);
-            for (VisualBomb b : bombs) b.update(dt);
+            for (int i = 0; i < players.size(); i++) players.get(i).update(dt);
+            for (int i = 0; i < bombs.size(); i++) bombs.get(i).update(dt);
             
-            // Update Ledakan
-            for (VisualExplosion e : explosions) e.update(dt);
+            // Update Ledakan. Yang animasinya sudah selesai langsung dibuang
+            // (diganti ledakan terakhir) biar gak numpuk di memory dan layar
+            for (int i = 0; i < explosionCount; ) {
+                VisualExplosion e = explosions[i];
+                e.update(dt);
+                if (e.isFinished()) {
+                    explosions[i] = explosions[--explosionCount];
+                    explosions[explosionCount] = null;
+                } else {
+                    i++;
+                }
+            }
 
             if (shrinkTimer > 0) {
             shrinkTimer -= dt;
@@ -54,10 +75,6 @@
                 shrinkPattern = ""; // Matikan efek jika waktu habis
             }
         }
-            
-            // [TAMBAHAN] Hapus ledakan yang animasinya sudah selesai dari list
-            // Ini penting biar ledakan gak numpuk di memory dan layar
-            explosions.removeIf(VisualExplosion::isFinished);
         }
 
         // ==================================================================
@@ -69,33 +86,34 @@
         // 1. Logic Bom
         public void addBomb(int x, int y) {
             // Cek duplicate biar ga numpuk visual di tile yang sama
-            for(VisualBomb b : bombs) {
-                if(b.tileX == x && b.tileY == y) return;
-            }
-            bombs.add(new VisualBomb(x, y));
+            if (bombs.get(x, y) != null) return;
+            bombs.put(x, y, new VisualBomb(x, y));
         }
 
         public void removeBombAt(int x, int y) {
-            bombs.removeIf(b -> b.tileX == x && b.tileY == y);
+            bombs.remove(x, y);
         }
 
         // 2. Logic Ledakan
         public void addExplosion(int x, int y, boolean vertical) {
-            explosions.add(new VisualExplosion(x, y, vertical));
+            if (explosionCount == explosions.length)
+                explosions = Arrays.copyOf(explosions, explosionCount * 2);
+            explosions[explosionCount++] = new VisualExplosion(x, y, vertical);
         }
 
         // 3. Logic Item
         public void spawnItem(int x, int y, String typeStr) {
             try {
                 VisualItem.Type type = VisualItem.Type.valueOf(typeStr);
-                items.add(new VisualItem(x, y, type));
+                items.remove(x, y); // Item baru menggantikan yang lama di tile yang sama
+                items.put(x, y, new VisualItem(x, y, type));
             } catch (Exception e) {
                 System.err.println("Unknown Item Type: " + typeStr);
             }
         }
 
         public void removeItemAt(int x, int y) {
-            items.removeIf(i -> i.tileX == x && i.tileY == y);
+            items.remove(x, y);
         }
 
         // 4. Logic Map (Hancurkan Tembok)
@@ -105,6 +123,20 @@
             }
         }
 
+        // 5. Logic Map Diff (arena menyusut): isi span tile langsung di map yang ada
+        // return false jika map belum ada / span di luar map (perlu RESYNC)
+        public boolean fillTiles(int x, int y, boolean vertical, int length, int tile) {
+            if (map == null || x < 0 || y < 0) return false;
+            int endX = vertical ? x : x + length - 1;
+            int endY = vertical ? y + length - 1 : y;
+            if (endX >= map.length || endY >= map[0].length) return false;
+            for (int i = 0; i < length; i++) {
+                if (vertical) map[x][y + i] = tile;
+                else map[x + i][y] = tile;
+            }
+            return true;
+        }
+
         // ==================================================================
         // [AKHIR BAGIAN BARU] SISA KODE LAMA DI BAWAH TETAP ADA
         // ==================================================================
@@ -136,21 +168,24 @@
         }
         public List<String> getAvailableRooms() { return availableRooms; }
 
-        public void setMap(int[][] newMap) { this.map = newMap; }
+        public void setMap(int[][] newMap) {
+            this.map = newMap;
+            if (newMap != null && newMap.length > 0) {
+                bombs.resize(newMap.length, newMap[0].length);
+                items.resize(newMap.length, newMap[0].length);
+            }
+        }
         public void setGameTime(float time) { this.gameTime = time; }
         public void setGameOver(boolean status) { this.gameOver = status; }
 
-        public void updatePlayers(List<VisualPlayer> newPlayers) { players.clear(); players.addAll(newPlayers); }
-        public void updateBombs(List<VisualBomb> newBombs) { bombs.clear(); bombs.addAll(newBombs); }
-        public void updateExplosions(List<VisualExplosion> newExplosions) { explosions.clear(); explosions.addAll(newExplosions); }
-        public void updateItems(List<VisualItem> newItems) { items.clear(); items.addAll(newItems); }
         public void clearPlayers() { players.clear(); }
 
         public int[][] getMap() { return map; }
-        public List<VisualPlayer> getPlayers() { return players; }
-        public List<VisualBomb> getBombs() { return bombs; }
-        public List<VisualExplosion> getExplosions() { return explosions; }
-        public List<VisualItem> getItems() { return items; }
+        public PlayerRegistry getPlayers() { return players; }
+        public TileSlots<VisualBomb> getBombs() { return bombs; }
+        public TileSlots<VisualItem> getItems() { return items; }
+        public int getExplosionCount() { return explosionCount; }
+        public VisualExplosion getExplosion(int i) { return explosions[i]; }
         public boolean isShrinking() { return shrinkTimer > 0; }
     public double getShrinkTimer() { return shrinkTimer; }
     public String getShrinkPattern() { return shrinkPattern; }
@@ -172,7 +207,8 @@
     }
 
     public void clearExplosions() {
-        explosions.clear();
+        Arrays.fill(explosions, 0, explosionCount, null);
+        explosionCount = 0;
     }
 
     public void clearItems() {
@@ -0,0 +1,126 @@
+package com.client;
+
+import java.util.Arrays;
+
+import com.client.entities.VisualPlayer;
+
+/**
+ * Player visual di client, di-index langsung dengan id dari server.
+ *
+ * Setiap snapshot STATE: beginSnapshot(), touch(id) untuk tiap player di
+ * snapshot (urutan = urutan gambar), lalu endSnapshot(). Player yang baru
+ * muncul di-join, yang tidak ada lagi di-leave; sisanya hanya di-update di
+ * tempat. Semua lewat array, jadi satu snapshot O(jumlah player) tanpa
+ * alokasi. VisualPlayer dibuat sekali per id (saat pertama terlihat) dan
+ * dipakai ulang saat id yang sama join lagi; frame sprite-nya diambil dari
+ * Assets (sudah di-preload saat aplikasi mulai).
+ *
+ * Tidak thread-safe: hanya dipakai thread FX (event STATE dari GameEventQueue).
+ */
+public final class PlayerRegistry {
+
+    private VisualPlayer[] byId = new VisualPlayer[8];
+    private boolean[] joined = new boolean[8];
+    private int[] seenInSnapshot = new int[8];
+    private int snapshot = 0;
+
+    // Player aktif (urutan snapshot terakhir) & buffer untuk snapshot berikutnya
+    private VisualPlayer[] active = new VisualPlayer[4];
+    private VisualPlayer[] next = new VisualPlayer[4];
+    private int count = 0;
+    private int nextCount = 0;
+
+    public int size() {
+        return count;
+    }
+
+    /** Player aktif ke-i (0 <= i < size()). */
+    public VisualPlayer get(int i) {
+        return active[i];
+    }
+
+    /** Player aktif dengan id ini, atau null. */
+    public VisualPlayer byId(int id) {
+        return id >= 0 && id < byId.length && joined[id] ? byId[id] : null;
+    }
+
+    // ===================== SNAPSHOT =======================
+
+    public void beginSnapshot() {
+        snapshot++;
+        nextCount = 0;
+    }
+
+    /** Player id ada di snapshot ini; join jika belum aktif. */
+    public VisualPlayer touch(int id) {
+        VisualPlayer p = join(id);
+        if (seenInSnapshot[id] != snapshot) {
+            seenInSnapshot[id] = snapshot;
+            if (nextCount == next.length)
+                next = Arrays.copyOf(next, nextCount * 2);
+            next[nextCount++] = p;
+        }
+        return p;
+    }
+
+    /** Leave semua player aktif yang tidak di-touch sejak beginSnapshot(). */
+    public void endSnapshot() {
+        for (int i = 0; i < count; i++) {
+            VisualPlayer p = active[i];
+            if (seenInSnapshot[p.id] != snapshot)
+                joined[p.id] = false; // leave
+        }
+        VisualPlayer[] old = active;
+        active = next;
+        count = nextCount;
+        next = old;
+        Arrays.fill(next, null);
+    }
+
+    // ===================== JOIN / LEAVE =======================
+
+    /**
+     * Aktifkan player id (buat VisualPlayer-nya jika id ini belum pernah
+     * terlihat). Player yang join ulang mulai lagi dari posisi spawn berikutnya.
+     * Belum masuk daftar gambar sampai muncul di snapshot.
+     */
+    public VisualPlayer join(int id) {
+        if (id >= byId.length)
+            growIds(id + 1);
+        VisualPlayer p = byId[id];
+        if (p == null)
+            p = byId[id] = new VisualPlayer(id);
+        if (!joined[id]) {
+            joined[id] = true;
+            p.respawn();
+        }
+        return p;
+    }
+
+    public void leave(int id) {
+        if (id < 0 || id >= byId.length || !joined[id])
+            return;
+        joined[id] = false;
+        for (int i = 0; i < count; i++) {
+            if (active[i].id == id) {
+                System.arraycopy(active, i + 1, active, i, count - i - 1);
+                active[--count] = null;
+                return;
+            }
+        }
+    }
+
+    /** Semua player keluar (reset game / kembali ke lobby). */
+    public void clear() {
+        Arrays.fill(joined, false);
+        Arrays.fill(active, 0, count, null);
+        count = 0;
+    }
+
+    private void growIds(int n) {
+        int size = Math.max(n, byId.length * 2);
+        byId = Arrays.copyOf(byId, size);
+        joined = Arrays.copyOf(joined, size);
+        seenInSnapshot = Arrays.copyOf(seenInSnapshot, size);
+    }
+}
@@ -0,0 +1,126 @@
+package com.client;
+
+import java.util.Arrays;
+
+/**
+ * Paling banyak satu entity per tile (bom, item), di-index langsung dengan
+ * koordinat tile. Entity juga disimpan rapat di array terpisah untuk
+ * di-iterasi render loop tanpa alokasi: size() / get(i).
+ *
+ * put / remove / get per tile O(1); remove mengisi lubang dengan entity
+ * terakhir (urutan gambar boleh berubah, tile tidak pernah tumpang tindih).
+ * Ukuran grid mengikuti map (resize) dan membesar sendiri kalau ada tile di
+ * luar map.
+ *
+ * Tidak thread-safe: hanya dipakai thread FX (lihat GameEventQueue).
+ */
+public final class TileSlots<T> {
+
+    private int cols = 0;
+    private int rows = 0;
+    private int[] slotOfTile = new int[0]; // tile (x * rows + y) -> index dense + 1, 0 = kosong
+
+    private Object[] dense = new Object[16];
+    private int[] denseX = new int[16];
+    private int[] denseY = new int[16];
+    private int count = 0;
+
+    public int size() {
+        return count;
+    }
+
+    /** Entity ke-i (0 <= i < size()). */
+    @SuppressWarnings("unchecked")
+    public T get(int i) {
+        return (T) dense[i];
+    }
+
+    /** Entity di tile (x, y), atau null. */
+    @SuppressWarnings("unchecked")
+    public T get(int x, int y) {
+        int tile = tileIndex(x, y);
+        if (tile < 0 || slotOfTile[tile] == 0)
+            return null;
+        return (T) dense[slotOfTile[tile] - 1];
+    }
+
+    /** Taruh entity di tile kosong. @return false jika tile sudah terisi / koordinat negatif. */
+    public boolean put(int x, int y, T entity) {
+        if (x < 0 || y < 0)
+            return false;
+        if (x >= cols || y >= rows)
+            resize(Math.max(cols, x + 1), Math.max(rows, y + 1));
+        int tile = x * rows + y;
+        if (slotOfTile[tile] != 0)
+            return false;
+        if (count == dense.length) {
+            dense = Arrays.copyOf(dense, count * 2);
+            denseX = Arrays.copyOf(denseX, count * 2);
+            denseY = Arrays.copyOf(denseY, count * 2);
+        }
+        dense[count] = entity;
+        denseX[count] = x;
+        denseY[count] = y;
+        slotOfTile[tile] = ++count;
+        return true;
+    }
+
+    /** Keluarkan entity di tile (x, y). @return entity tersebut, atau null. */
+    @SuppressWarnings("unchecked")
+    public T remove(int x, int y) {
+        int tile = tileIndex(x, y);
+        if (tile < 0 || slotOfTile[tile] == 0)
+            return null;
+        int i = slotOfTile[tile] - 1;
+        T removed = (T) dense[i];
+        slotOfTile[tile] = 0;
+
+        // Isi lubang dengan entity terakhir
+        int last = --count;
+        if (i != last) {
+            dense[i] = dense[last];
+            denseX[i] = denseX[last];
+            denseY[i] = denseY[last];
+            slotOfTile[denseX[i] * rows + denseY[i]] = i + 1;
+        }
+        dense[last] = null;
+        return removed;
+    }
+
+    public void clear() {
+        Arrays.fill(slotOfTile, 0);
+        Arrays.fill(dense, 0, count, null);
+        count = 0;
+    }
+
+    /** Sesuaikan grid dengan ukuran map (cols x rows); entity yang ada tetap di tile-nya. */
+    public void resize(int newCols, int newRows) {
+        newCols = Math.max(newCols, maxX() + 1);
+        newRows = Math.max(newRows, maxY() + 1);
+        if (newCols == cols && newRows == rows)
+            return;
+        cols = newCols;
+        rows = newRows;
+        slotOfTile = new int[cols * rows];
+        for (int i = 0; i < count; i++)
+            slotOfTile[denseX[i] * rows + denseY[i]] = i + 1;
+    }
+
+    private int tileIndex(int x, int y) {
+        return x >= 0 && y >= 0 && x < cols && y < rows ? x * rows + y : -1;
+    }
+
+    private int maxX() {
+        int max = -1;
+        for (int i = 0; i < count; i++)
+            max = Math.max(max, denseX[i]);
+        return max;
+    }
+
+    private int maxY() {
+        int max = -1;
+        for (int i = 0; i < count; i++)
+            max = Math.max(max, denseY[i]);
+        return max;
+    }
+}
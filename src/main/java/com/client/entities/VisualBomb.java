@@ -1,5 +1,7 @@
 package com.client.entities;
 
+import com.client.render.Assets;
+
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
 import javafx.scene.paint.Color;
@@ -15,7 +17,7 @@ public class VisualBomb {
     private int frameIndex = 0;
 
     private final int tileSize = 32;
-    private final int bombSize = 28;
+    private final int bombSize = Assets.BOMB_SIZE;
     
     // Status gambar
     private boolean imageLoaded = false;
@@ -24,21 +26,11 @@ public class VisualBomb {
         this.tileX = tileX;
         this.tileY = tileY;
 
-        try {
-            sprites = new Image[3];
-            // Pastikan folder ini benar ada di src/main/resources atau src
-            sprites[0] = new Image(getClass().getResourceAsStream("/com/client/assets/bomb/bom1.png"), bombSize, bombSize, false, false);
-            sprites[1] = new Image(getClass().getResourceAsStream("/com/client/assets/bomb/bom2.png"), bombSize, bombSize, false, false);
-            sprites[2] = new Image(getClass().getResourceAsStream("/com/client/assets/bomb/bom3.png"), bombSize, bombSize, false, false);
-            
-            // Cek simple apakah load sukses
-            if (!sprites[0].isError()) {
-                imageLoaded = true;
-            }
-        } catch (Exception e) {
-            System.err.println("GAGAL LOAD GAMBAR BOM: " + e.getMessage());
-            imageLoaded = false;
-        }
+        // bom1..3.png, di-decode sekali di Assets
+        sprites = Assets.bombFrames();
+
+        // Cek simple apakah load sukses
+        imageLoaded = sprites[0] != null;
     }
 
     public void update(double dt) {
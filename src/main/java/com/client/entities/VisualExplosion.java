@@ -1,5 +1,7 @@
 package com.client.entities;
 
+import com.client.render.Assets;
+
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
 import javafx.scene.paint.Color;
@@ -33,25 +35,11 @@ public class VisualExplosion {
     }
 
     private void loadResources() {
-        try {
-            // Kita siapkan array 4 frame (sesuai aset kamu)
-            sprites = new Image[4];
-            String type = isVertical ? "vertical" : "horizontal";
+        // 4 frame e_horizontal1..4 / e_vertical1..4, di-decode sekali di Assets
+        sprites = Assets.explosionFrames(isVertical);
 
-            // Loop load e_horizontal1.png s/d e_horizontal4.png
-            for (int i = 0; i < 4; i++) {
-                String path = "/com/client/assets/explosion/e_" + type + (i + 1) + ".png";
-                sprites[i] = new Image(getClass().getResourceAsStream(path), tileSize, tileSize, false, false);
-            }
-            
-            // Cek validitas gambar pertama
-            if (!sprites[0].isError()) {
-                imageLoaded = true;
-            }
-        } catch (Exception e) {
-            System.err.println("GAGAL LOAD GAMBAR EXPLOSION: " + e.getMessage());
-            imageLoaded = false;
-        }
+        // Cek validitas gambar pertama
+        imageLoaded = sprites[0] != null;
     }
 
     public void update(double dt) {
@@ -1,5 +1,7 @@
 package com.client.entities;
 
+import com.client.render.Assets;
+
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
 import javafx.scene.paint.Color;
@@ -15,45 +17,22 @@ public class VisualItem {
     public final int tileY; 
     public final Type type;
 
-    private static Image imgBombUp;
-    private static Image imgFireUp;
-    private static Image imgSpeedUp;
+    private final Image img; // Dari Assets, dipakai bersama semua item sejenis
     private final int tileSize = 32;
 
     public VisualItem(int x, int y, Type type) {
         this.tileX = x; // Assign ke tileX
         this.tileY = y; // Assign ke tileY
         this.type = type;
-        
-        // Load static agar hemat memori (kalau belum di-load)
-        if (imgBombUp == null) {
-            loadImages();
-        }
-    }
-
-    private void loadImages() {
-        try {
-            // Pastikan nama folder "item" atau "items" sesuai project kamu
-            imgBombUp = new Image(getClass().getResourceAsStream("/com/client/assets/item/BombUp.png"), tileSize, tileSize, false, false);
-            imgFireUp = new Image(getClass().getResourceAsStream("/com/client/assets/item/FireUp.png"), tileSize, tileSize, false, false);
-            imgSpeedUp = new Image(getClass().getResourceAsStream("/com/client/assets/item/SpeedUp.png"), tileSize, tileSize, false, false);
-        } catch (Exception e) {
-            System.err.println("Gagal load gambar item: " + e.getMessage());
-        }
+        this.img = Assets.item(type);
     }
 
     public void render(GraphicsContext g) {
-        Image img = switch (type) {
-            case BOMB_UP -> imgBombUp;
-            case FIRE_UP -> imgFireUp;
-            case SPEED_UP -> imgSpeedUp;
-        };
-        
         double px = tileX * tileSize;
         double py = tileY * tileSize;
 
         // Render Gambar jika berhasil di-load
-        if (img != null && !img.isError()) {
+        if (img != null) {
             g.drawImage(img, px, py);
         } else {
             // FALLBACK: Gambar Kotak Biru Kecil jika gambar gagal di-load / path salah
@@ -1,11 +1,10 @@
 package com.client.entities;
 
+import com.client.render.Assets;
 import com.client.render.SpriteAnimation;
-import com.client.render.SpriteLoader;
 
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
-import javafx.scene.image.WritableImage;
 
 public class VisualPlayer {
 
@@ -47,26 +46,43 @@ public class VisualPlayer {
     private final int offsetX = -1; 
     private final int offsetY = -1; 
 
-    public VisualPlayer(int id, SpriteLoader loader) {
+    public VisualPlayer(int id) {
         this.id = id;
         
+        // Frame dipakai bersama semua player (Assets), tiap player hanya punya posisi animasinya
         // --- IDLE ---
-        animIdleDown  = new SpriteAnimation(loadFrames(loader, "sP2DownIdle_", 1));
-        animIdleUp    = new SpriteAnimation(loadFrames(loader, "sP2UpIdle_", 1));
-        animIdleLeft  = new SpriteAnimation(loadFrames(loader, "sP2LeftIdle_", 1));
-        animIdleRight = new SpriteAnimation(loadFrames(loader, "sP2RightIdle_", 1));
+        animIdleDown  = new SpriteAnimation(Assets.playerFrames("sP2DownIdle_", 1));
+        animIdleUp    = new SpriteAnimation(Assets.playerFrames("sP2UpIdle_", 1));
+        animIdleLeft  = new SpriteAnimation(Assets.playerFrames("sP2LeftIdle_", 1));
+        animIdleRight = new SpriteAnimation(Assets.playerFrames("sP2RightIdle_", 1));
 
         // --- WALK ---
-        animWalkDown  = new SpriteAnimation(loadFrames(loader, "sP2Down_", 2));
-        animWalkUp    = new SpriteAnimation(loadFrames(loader, "sP2Up_", 2));
-        animWalkLeft  = new SpriteAnimation(loadFrames(loader, "sP2Left_", 3));
-        animWalkRight = new SpriteAnimation(loadFrames(loader, "sP2Right_", 3));
+        animWalkDown  = new SpriteAnimation(Assets.playerFrames("sP2Down_", 2));
+        animWalkUp    = new SpriteAnimation(Assets.playerFrames("sP2Up_", 2));
+        animWalkLeft  = new SpriteAnimation(Assets.playerFrames("sP2Left_", 3));
+        animWalkRight = new SpriteAnimation(Assets.playerFrames("sP2Right_", 3));
 
         // --- DEATH ---
-        animDeath = new SpriteAnimation(loadFrames(loader, "sP2Death_", 7));
+        animDeath = new SpriteAnimation(Assets.playerFrames("sP2Death_", 7));
         animDeath.setLoop(false);
     }
 
+    /** Decode semua frame player ke Assets (lihat Assets.preload). */
+    public static void preload() {
+        new VisualPlayer(-1); // Konstruktor mengambil semua frame lewat Assets
+    }
+
+    /**
+     * Reset saat player yang sama dipakai ulang (join lagi / game baru):
+     * posisi snap ke STATE berikutnya dan animasi mati diulang dari awal.
+     */
+    public void respawn() {
+        x = y = targetX = targetY = 0;
+        state = State.IDLE;
+        dir = Direction.DOWN;
+        animDeath.reset();
+    }
+
     /**
      * Dipanggil saat menerima paket data baru dari Server.
      * Kita hanya update TARGET, bukan posisi X/Y visual langsung.
@@ -91,19 +107,6 @@ public class VisualPlayer {
         }
     }
 
-    private Image[] loadFrames(SpriteLoader loader, String base, int count) {
-        Image[] temp = new Image[count];
-        int idx = 0;
-        for (int i = 0; i < count; i++) {
-            Image img = loader.get(base + i);
-            if (img != null) temp[idx++] = img;
-        }
-        if (idx == 0) return new Image[]{ new WritableImage(1, 1) }; // Fallback blank image
-        Image[] frames = new Image[idx];
-        System.arraycopy(temp, 0, frames, 0, idx);
-        return frames;
-    }
-
     // Update dipanggil 60x per detik oleh GameCanvas
     public void update(double dt) {
         
@@ -1,20 +1,30 @@
 package com.client.network;
 
-import java.io.BufferedReader;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.PrintWriter;
 import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 import com.client.ClientGameState;
+import com.client.protocol.FrameReader;
+import com.client.protocol.Wire;
 
 public class ClientNetworkManager {
 
     private Socket socket;
     private PrintWriter out;
-    private BufferedReader in;
+    private DataInputStream in;
     private boolean isRunning = false;
 
+    // Mode biner aktif setelah server membalas Wire.HELLO_BINARY
+    private boolean requestBinary = true;
+    private volatile boolean binaryMode = false;
+    private byte[] readBuffer = new byte[1024];
+    private final FrameReader frameReader = new FrameReader();
+
     private final String serverIp;
     private final int serverPort;
     private final ClientGameState gameState;
@@ -28,6 +38,7 @@ public class ClientNetworkManager {
         this.serverPort = port;
         this.gameState = gameState;
         this.parser = new PacketParser(gameState);
+        this.parser.setReplySender(this::send); // ACK/RESYNC delta STATE
     }
 
     /**
@@ -42,11 +53,15 @@ public class ClientNetworkManager {
         
         // 2. Setup Input/Output Streams
         out = new PrintWriter(socket.getOutputStream(), true);
-        in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+        in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
         
         isRunning = true;
         System.out.println("Connected to Server!");
 
+        // Minta protocol biner. Server lama akan mengabaikan baris ini (tetap teks).
+        if (requestBinary)
+            send(Wire.HELLO_BINARY);
+
         // 3. Mulai Thread untuk mendengarkan pesan dari Server terus menerus
         startListenThread();
     }
@@ -54,11 +69,26 @@ public class ClientNetworkManager {
     private void startListenThread() {
         new Thread(() -> {
             try {
-                String message;
-                // Loop: Baca pesan baris per baris dari Server
-                while (isRunning && (message = in.readLine()) != null) {
-                    // System.out.println("RECV: " + message); // Debug
-                    parser.parse(message);
+                while (isRunning) {
+                    if (binaryMode) {
+                        // Frame biner: [u16 panjang][opcode + payload]
+                        int length = in.readUnsignedShort();
+                        if (readBuffer.length < length)
+                            readBuffer = new byte[Math.max(length, readBuffer.length * 2)];
+                        in.readFully(readBuffer, 0, length);
+                        parser.parseFrame(frameReader.wrap(readBuffer, 0, length));
+                    } else {
+                        // Teks: baca pesan baris per baris dari Server
+                        String message = readLine();
+                        if (message == null)
+                            break;
+                        if (message.equals(Wire.HELLO_BINARY)) {
+                            binaryMode = true;
+                            System.out.println("Binary protocol enabled.");
+                            continue;
+                        }
+                        parser.parse(message);
+                    }
                 }
             } catch (IOException e) {
                 System.err.println("Connection lost: " + e.getMessage());
@@ -68,6 +98,23 @@ public class ClientNetworkManager {
         }).start();
     }
 
+    // readLine manual di atas DataInputStream, supaya bisa pindah ke mode biner
+    // di tengah stream tanpa kehilangan byte yang sudah ter-buffer
+    private String readLine() throws IOException {
+        int len = 0;
+        int b;
+        while ((b = in.read()) != -1 && b != '\n') {
+            if (len == readBuffer.length)
+                readBuffer = Arrays.copyOf(readBuffer, len * 2);
+            readBuffer[len++] = (byte) b;
+        }
+        if (b == -1 && len == 0)
+            return null;
+        if (len > 0 && readBuffer[len - 1] == '\r')
+            len--;
+        return new String(readBuffer, 0, len, StandardCharsets.UTF_8);
+    }
+
     // Mengirim pesan String ke Server
     public void send(String message) {
         if (socket != null && !socket.isClosed()) {
@@ -93,4 +140,13 @@ public class ClientNetworkManager {
     public void setOnDisconnect(Runnable onDisconnect) {
         this.onDisconnect = onDisconnect;
     }
+
+    // Matikan sebelum connect() untuk debug dengan protocol teks
+    public void setRequestBinary(boolean requestBinary) {
+        this.requestBinary = requestBinary;
+    }
+
+    public boolean isBinaryMode() {
+        return binaryMode;
+    }
 }
\ No newline at end of file
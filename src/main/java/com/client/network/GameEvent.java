@@ -0,0 +1,51 @@
+package com.client.network;
+
+import java.util.Arrays;
+
+/**
+ * Satu event gameplay hasil decode PacketParser, menunggu diterapkan render
+ * loop lewat GameEventQueue. Slot dialokasikan sekali oleh queue dan diisi
+ * ulang oleh thread network; setelah di-publish isinya tidak diubah lagi
+ * sampai render loop selesai menerapkannya.
+ *
+ * type memakai kode Opcode untuk event yang punya pasangan di protocol, lalu
+ * kode khusus client di bawah. Arti field per type:
+ * - STATE: time, data = baris SnapshotRing.STRIDE (length / STRIDE player)
+ * - BOMB_PLACED, BREAK_TILE, ITEM_PICKED: a, b = tile x, y
+ * - EXPLOSION: a, b = pusat; data = x, y, vertical (0/1) per bagian api
+ * - SPAWN_ITEM: a, b = tile, c = index Wire.ITEMS
+ * - PLAYER_DIED: a = id, b = 1 jika player kita sendiri
+ * - MAP: ref = int[][] map baru
+ * - MAP_DIFF: data = x, y, vertical (0/1), panjang, tile per span
+ * - ARENA_WARNING: a = index Wire.SHRINK_PATTERNS, b..e = kiri, kanan, atas, bawah
+ * - GAME_OVER: a = 1 jika kita menang
+ * - RESET: (tanpa data)
+ */
+final class GameEvent {
+
+    // Event yang tidak punya opcode sendiri (datang sebagai pesan teks kontrol)
+    static final int GAME_OVER = 0x40;
+    static final int RESET = 0x41;
+
+    int type;
+    int a, b, c, d, e;
+    double time;
+    int[] data = new int[32];
+    int length;
+    Object ref;
+
+    /** Tambah satu int ke data (array membesar sekali, lalu dipakai ulang). */
+    void add(int value) {
+        if (length == data.length)
+            data = Arrays.copyOf(data, length * 2);
+        data[length++] = value;
+    }
+
+    /** Salin len int pertama src ke data. */
+    void setData(int[] src, int len) {
+        if (data.length < len)
+            data = new int[Math.max(len, data.length * 2)];
+        System.arraycopy(src, 0, data, 0, len);
+        length = len;
+    }
+}
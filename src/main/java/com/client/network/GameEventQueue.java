@@ -0,0 +1,185 @@
+package com.client.network;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.client.ClientGameState;
+import com.client.PlayerRegistry;
+import com.client.entities.VisualPlayer;
+import com.client.protocol.Opcode;
+import com.client.protocol.SnapshotRing;
+import com.client.protocol.Wire;
+import com.client.ui.SceneManager;
+
+/**
+ * Antrian event dari thread network (satu producer: PacketParser) ke render
+ * loop FX (satu consumer: GameCanvas). Ring berisi slot GameEvent yang sudah
+ * dialokasikan, jadi alur normal tidak membuat objek.
+ *
+ * Producer mengisi slot lewat claim() lalu publish() sekali per pesan atau
+ * per batch tick; render loop memanggil drain() di awal frame dan menerapkan
+ * semua yang sudah di-publish. Dengan begitu:
+ * - entity & map di ClientGameState hanya disentuh thread FX (tanpa lock /
+ *   CopyOnWriteArrayList)
+ * - satu batch tick selalu terlihat utuh di satu frame
+ * - kerja FX per frame dibatasi kapasitas ring, dan dari beberapa STATE yang
+ *   menumpuk hanya yang terakhir diterapkan
+ *
+ * Ring penuh (render loop tertinggal / berhenti, mis. kembali ke lobby): event
+ * langsung dibuang dan desync ditandai supaya parser meminta RESYNC (map penuh
+ * + keyframe) ke server. Thread network tidak pernah menunggu thread FX;
+ * kapasitas ring cukup untuk menampung frame yang sesekali terlambat.
+ */
+public final class GameEventQueue {
+
+    // Urutan sama dengan Wire.STATES / Wire.DIRS
+    private static final VisualPlayer.State[] STATES = VisualPlayer.State.values();
+    private static final VisualPlayer.Direction[] DIRS = VisualPlayer.Direction.values();
+
+    private final GameEvent[] slots;
+    private final int mask;
+    private final GameEvent discard = new GameEvent(); // Tujuan claim() saat ring penuh
+
+    private volatile long head = 0; // Ditulis consumer: slot < head boleh dipakai ulang
+    private volatile long tail = 0; // Ditulis producer: slot < tail sudah di-publish
+    private long staged = 0; // Milik producer: sudah di-claim, belum di-publish
+
+    private final AtomicBoolean desync = new AtomicBoolean(false);
+    private volatile long dropped = 0;
+
+    /** capacity harus pangkat dua. */
+    public GameEventQueue(int capacity) {
+        if (Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        slots = new GameEvent[capacity];
+        for (int i = 0; i < capacity; i++)
+            slots[i] = new GameEvent();
+        mask = capacity - 1;
+    }
+
+    // ===================== PRODUCER (thread network) =======================
+
+    /**
+     * Slot untuk event berikutnya, sudah dikosongkan dan diberi type.
+     * Belum terlihat render loop sampai publish().
+     */
+    GameEvent claim(int type) {
+        GameEvent e = nextSlot();
+        e.type = type;
+        e.a = e.b = e.c = e.d = e.e = 0;
+        e.time = 0;
+        e.length = 0;
+        e.ref = null;
+        return e;
+    }
+
+    /** Tampilkan semua event yang di-claim sejak publish() terakhir. */
+    void publish() {
+        if (tail != staged)
+            tail = staged;
+    }
+
+    /** true (sekali) jika ada event yang dibuang / map tidak cocok sejak panggilan terakhir. */
+    boolean takeDesync() {
+        return desync.get() && desync.getAndSet(false);
+    }
+
+    private GameEvent nextSlot() {
+        if (staged - head == slots.length) {
+            // Jangan tahan thread network menunggu render loop
+            dropped++;
+            desync.set(true);
+            return discard;
+        }
+        return slots[(int) (staged++ & mask)];
+    }
+
+    public long droppedEvents() {
+        return dropped;
+    }
+
+    // ===================== CONSUMER (thread FX) =======================
+
+    /** Terapkan semua event yang sudah di-publish. @return jumlah event. */
+    public int drain(ClientGameState state) {
+        long start = head;
+        long end = tail;
+        if (start == end)
+            return 0;
+
+        // STATE yang sudah disusul STATE lain di drain ini tidak perlu diterapkan
+        long lastState = -1;
+        for (long i = start; i < end; i++) {
+            if (slots[(int) (i & mask)].type == Opcode.STATE)
+                lastState = i;
+        }
+
+        for (long i = start; i < end; i++) {
+            GameEvent e = slots[(int) (i & mask)];
+            if (e.type != Opcode.STATE || i == lastState) {
+                try {
+                    apply(e, state);
+                } catch (RuntimeException ex) {
+                    System.err.println("Error applying event " + e.type + ": " + ex.getMessage());
+                }
+            }
+            e.ref = null; // Jangan tahan map lama sampai slot dipakai ulang
+        }
+        head = end;
+        return (int) (end - start);
+    }
+
+    private void apply(GameEvent e, ClientGameState state) {
+        switch (e.type) {
+            case Opcode.STATE -> {
+                state.setGameTime(e.time);
+                PlayerRegistry players = state.getPlayers();
+                players.beginSnapshot();
+                for (int o = 0; o < e.length; o += SnapshotRing.STRIDE) {
+                    players.touch(e.data[o]).setNetworkState(e.data[o + 1], e.data[o + 2],
+                            STATES[e.data[o + 3]], DIRS[e.data[o + 4]]);
+                }
+                players.endSnapshot();
+            }
+            case Opcode.BOMB_PLACED -> state.addBomb(e.a, e.b);
+            case Opcode.EXPLOSION -> {
+                // Hapus bom visual di pusat ledakan
+                state.removeBombAt(e.a, e.b);
+                state.addExplosion(e.a, e.b, false);
+                for (int o = 0; o < e.length; o += 3)
+                    state.addExplosion(e.data[o], e.data[o + 1], e.data[o + 2] != 0);
+            }
+            case Opcode.BREAK_TILE -> state.breakTile(e.a, e.b);
+            case Opcode.SPAWN_ITEM -> state.spawnItem(e.a, e.b, Wire.ITEMS[e.c]);
+            case Opcode.ITEM_PICKED -> state.removeItemAt(e.a, e.b);
+            case Opcode.PLAYER_DIED -> {
+                if (e.b != 0)
+                    SceneManager.showGameOverPopup(false);
+            }
+            case Opcode.MAP -> state.setMap((int[][]) e.ref);
+            case Opcode.MAP_DIFF -> {
+                for (int o = 0; o < e.length; o += 5) {
+                    // Map lokal tidak cocok dengan server: parser akan minta map penuh + keyframe
+                    if (!state.fillTiles(e.data[o], e.data[o + 1], e.data[o + 2] != 0, e.data[o + 3], e.data[o + 4]))
+                        desync.set(true);
+                }
+            }
+            case Opcode.ARENA_WARNING -> state.setArenaWarning(Wire.SHRINK_PATTERNS[e.a], e.b, e.c, e.d, e.e);
+            case GameEvent.GAME_OVER -> {
+                state.setGameOver(true);
+                state.clearBombs(); // Hapus semua bom
+                state.clearItems(); // Hapus item
+                state.clearExplosions(); // Hapus ledakan (biar bersih)
+                SceneManager.showGameOverPopup(e.a != 0);
+            }
+            case GameEvent.RESET -> {
+                state.clearBombs();
+                state.clearItems();
+                state.clearExplosions();
+                state.clearPlayers();
+                state.setGameOver(false); // Agar input & update jalan lagi
+                state.setGameTime(60); // Waktu visual default
+            }
+            default -> System.err.println("Unknown event: " + e.type);
+        }
+    }
+}
@@ -2,130 +2,189 @@ package com.client.network;
 
 import com.client.App;
 import com.client.ClientGameState;
-import com.client.entities.VisualPlayer;
-import com.client.render.SpriteLoader;
 import com.client.ui.SceneManager;
 
 import javafx.application.Platform;
 import javafx.scene.control.Alert;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
+
+import com.client.protocol.CommandTable;
+import com.client.protocol.FrameReader;
+import com.client.protocol.Opcode;
+import com.client.protocol.SnapshotRing;
+import com.client.protocol.TextCursor;
+import com.client.protocol.Wire;
 
 public class PacketParser {
 
+    // ACK dikirim tiap beberapa snapshot (keyframe selalu langsung di-ACK)
+    private static final int ACK_INTERVAL = 3;
+
+    // Command teks gameplay -> opcode frame yang sepadan; command lain (lobby / UI) = -1
+    private static final CommandTable TEXT_COMMANDS = new CommandTable(
+            new String[] { "STATE", "BATCH", "BOMB_PLACED", "EXPLOSION", "BREAK_TILE", "SPAWN_ITEM",
+                    "ITEM_PICKED", "PLAYER_DIED", "MAP", "MAP_UPDATE", "MAP_DIFF", "ARENA_WARNING" },
+            new int[] { Opcode.STATE, Opcode.BATCH, Opcode.BOMB_PLACED, Opcode.EXPLOSION, Opcode.BREAK_TILE,
+                    Opcode.SPAWN_ITEM, Opcode.ITEM_PICKED, Opcode.PLAYER_DIED, Opcode.MAP, Opcode.MAP_UPDATE,
+                    Opcode.MAP_DIFF, Opcode.ARENA_WARNING });
+
     private final ClientGameState gameState;
-    private final SpriteLoader spriteLoader;
+    private final GameEventQueue events; // Gameplay diterapkan render loop, bukan di thread ini
+
+    // Snapshot yang sudah diterima (mode biner), baseline untuk STATE_DELTA
+    private final SnapshotRing receivedSnapshots = new SnapshotRing(64);
+    private int[] snapshotRows = new int[SnapshotRing.STRIDE * 4];
+    private int snapshotsSinceAck = 0;
+    private boolean awaitingKeyframe = false;
+    private Consumer<String> replySender; // Balasan ke server (ACK/RESYNC)
+
+    // Batch satu tick (BATCH;n / frame BATCH): n pesan berikutnya dikumpulkan dulu,
+    // lalu diterapkan sekaligus di bawah frame lock
+    private int batchRemaining = 0;
+    private final List<String> textBatch = new ArrayList<>();
+    private byte[] frameBatch = new byte[1024];
+    private int frameBatchLength = 0;
+    private final FrameReader batchReader = new FrameReader();
+    private final TextCursor textCursor = new TextCursor();
 
     public PacketParser(ClientGameState gameState) {
         this.gameState = gameState;
-        this.spriteLoader = new SpriteLoader();
+        this.events = gameState.getEvents();
+    }
+
+    public void setReplySender(Consumer<String> replySender) {
+        this.replySender = replySender;
     }
 
     public void parse(String packet) {
         if (packet == null || packet.isEmpty())
             return;
 
-        // Pisahkan command utama dengan datanya
-        String[] parts = packet.split(";", 2);
-        String command = parts[0];
-        String data = parts.length > 1 ? parts[1] : "";
+        checkDesync();
+        if (batchRemaining > 0) {
+            textBatch.add(packet);
+            if (--batchRemaining == 0)
+                applyTextBatch();
+            return;
+        }
 
-        switch (command) {
-            // ================= GAMEPLAY EVENTS =================
+        dispatch(packet);
+        events.publish();
+    }
 
-            case "BOMB_PLACED" -> {
-                // Server: BOMB_PLACED;x,y;ownerId
-                try {
-                    String[] info = data.split(";");
-                    String[] coords = info[0].split(",");
-                    int bx = Integer.parseInt(coords[0]);
-                    int by = Integer.parseInt(coords[1]);
+    // Render loop menemukan map tidak cocok / event terbuang karena antrian penuh
+    private void checkDesync() {
+        if (events.takeDesync())
+            requestResync();
+    }
 
-                    gameState.addBomb(bx, by);
-                    System.out.println("[CLIENT] Bomb spawned at " + bx + "," + by);
-                } catch (Exception e) {
-                    System.err.println("Error parsing BOMB_PLACED: " + e.getMessage());
+    private void dispatch(String packet) {
+        // Pesan gameplay (tiap tick) dibaca dengan cursor tanpa split / substring;
+        // command lobby & UI yang jarang tetap lewat dispatchControl()
+        TextCursor c = textCursor.wrap(packet);
+        int opcode = c.readCommand(TEXT_COMMANDS);
+        if (opcode < 0) {
+            dispatchControl(packet);
+            return;
+        }
+        try {
+            switch (opcode) {
+                case Opcode.STATE -> parseState(c);
+                case Opcode.BATCH -> startBatch(c.readInt()); // BATCH;n lalu n baris milik tick yang sama
+                case Opcode.BOMB_PLACED -> {
+                    // BOMB_PLACED;x,y;ownerId
+                    int bx = c.readInt();
+                    c.expect(',');
+                    onBombPlaced(bx, c.readInt());
                 }
-            }
-
-            case "EXPLOSION" -> {
-                // Server: EXPLOSION;centerX,centerY;part1;part2...
-                try {
-                    String[] sections = data.split(";");
-
-                    // 1. Ambil Pusat Ledakan & Hapus Bom Visualnya
-                    String[] center = sections[0].split(",");
-                    int cx = Integer.parseInt(center[0]);
-                    int cy = Integer.parseInt(center[1]);
-
-                    gameState.removeBombAt(cx, cy);
-                    gameState.addExplosion(cx, cy, false);
-
-                    // 2. Loop sisa part ledakan (api)
-                    for (int i = 1; i < sections.length; i++) {
-                        String[] p = sections[i].split(",");
-                        int px = Integer.parseInt(p[0]);
-                        int py = Integer.parseInt(p[1]);
-                        boolean vert = Boolean.parseBoolean(p[2]);
-                        gameState.addExplosion(px, py, vert);
+                case Opcode.EXPLOSION -> {
+                    // EXPLOSION;centerX,centerY;x,y,vertical;...
+                    int cx = c.readInt();
+                    c.expect(',');
+                    GameEvent e = onExplosion(cx, c.readInt());
+                    while (c.skip(';')) {
+                        e.add(c.readInt());
+                        c.expect(',');
+                        e.add(c.readInt());
+                        c.expect(',');
+                        e.add(c.readBoolean() ? 1 : 0);
                     }
-                } catch (Exception e) {
-                    e.printStackTrace();
                 }
-            }
-
-            case "BREAK_TILE" -> {
-                // Server: BREAK_TILE;x,y
-                try {
-                    String[] coords = data.split(",");
-                    int tx = Integer.parseInt(coords[0]);
-                    int ty = Integer.parseInt(coords[1]);
-                    gameState.breakTile(tx, ty);
-                } catch (Exception e) {
+                case Opcode.BREAK_TILE -> {
+                    // BREAK_TILE;x,y
+                    int tx = c.readInt();
+                    c.expect(',');
+                    onTile(Opcode.BREAK_TILE, tx, c.readInt());
                 }
-            }
-
-            case "SPAWN_ITEM" -> {
-                // Server: SPAWN_ITEM;x,y,TYPE
-                try {
-                    String[] info = data.split(",");
-                    int ix = Integer.parseInt(info[0]);
-                    int iy = Integer.parseInt(info[1]);
-                    String type = info[2];
-                    gameState.spawnItem(ix, iy, type);
-                } catch (Exception e) {
+                case Opcode.SPAWN_ITEM -> {
+                    // SPAWN_ITEM;x,y,TYPE
+                    int ix = c.readInt();
+                    c.expect(',');
+                    int iy = c.readInt();
+                    c.expect(',');
+                    int type = c.readIndex(Wire.ITEMS);
+                    if (type >= 0)
+                        onItemSpawned(ix, iy, type);
                 }
-            }
-
-            case "ITEM_PICKED" -> {
-                // Server: ITEM_PICKED;pid,x,y,TYPE
-                try {
-                    String[] info = data.split(",");
-                    // info[0] adalah playerID
-                    int ix = Integer.parseInt(info[1]);
-                    int iy = Integer.parseInt(info[2]);
-                    gameState.removeItemAt(ix, iy);
-                } catch (Exception e) {
+                case Opcode.ITEM_PICKED -> {
+                    // ITEM_PICKED;playerId,x,y,TYPE
+                    c.readInt();
+                    c.expect(',');
+                    int ix = c.readInt();
+                    c.expect(',');
+                    onTile(Opcode.ITEM_PICKED, ix, c.readInt());
+                }
+                case Opcode.PLAYER_DIED -> onPlayerDied(c.readInt()); // PLAYER_DIED;id
+                case Opcode.MAP, Opcode.MAP_UPDATE -> parseMap(c); // Map awal / arena menyusut
+                case Opcode.MAP_DIFF -> {
+                    // MAP_DIFF;x,y,H|V,panjang,tile;...
+                    GameEvent e = events.claim(Opcode.MAP_DIFF);
+                    do {
+                        e.add(c.readInt());
+                        c.expect(',');
+                        e.add(c.readInt());
+                        c.expect(',');
+                        e.add(c.peek() == 'V' ? 1 : 0);
+                        c.skipTo(',');
+                        c.expect(',');
+                        e.add(c.readInt());
+                        c.expect(',');
+                        e.add(c.readInt());
+                    } while (c.skip(';'));
+                }
+                case Opcode.ARENA_WARNING -> {
+                    // ARENA_WARNING;LR;1;11;1;11
+                    int pattern = c.readIndex(Wire.SHRINK_PATTERNS);
+                    c.expect(';');
+                    int l = c.readInt();
+                    c.expect(';');
+                    int r = c.readInt();
+                    c.expect(';');
+                    int t = c.readInt();
+                    c.expect(';');
+                    int b = c.readInt();
+                    if (pattern >= 0)
+                        onArenaWarning(pattern, l, r, t, b);
                 }
+                default -> dispatchControl(packet);
             }
+        } catch (RuntimeException e) {
+            System.err.println("Error parsing " + packet + ": " + e.getMessage());
+        }
+    }
 
-            // ================= DEATH & GAME OVER =================
-
-            case "PLAYER_DIED" -> {
-                // Server: PLAYER_DIED;id
-                try {
-                    int deadId = Integer.parseInt(data);
+    private void dispatchControl(String packet) {
+        // Pisahkan command utama dengan datanya
+        String[] parts = packet.split(";", 2);
+        String command = parts[0];
+        String data = parts.length > 1 ? parts[1] : "";
 
-                    // Cek apakah ID yang mati adalah ID saya sendiri
-                    if (deadId == gameState.getMyPlayerId()) {
-                        System.out.println("[CLIENT] You Died!");
-                        Platform.runLater(() -> SceneManager.showGameOverPopup(false));
-                    }
-                } catch (Exception e) {
-                    System.err.println("Error parsing PLAYER_DIED");
-                }
-            }
+        switch (command) {
+            // ================= DEATH & GAME OVER =================
 
             case "GAME_OVER" -> {
                 // Format:
@@ -165,24 +224,11 @@ public class PacketParser {
                     System.err.println("Error parsing GAME_OVER: " + e.getMessage());
                 }
 
-                System.out.println("[CLIENT] Cleaning up game state due to GAME_OVER");
-                gameState.setGameOver(true);
-                gameState.clearBombs(); // Hapus semua bom
-                gameState.clearItems(); // Hapus item
-                gameState.clearExplosions(); // Hapus ledakan (biar bersih)
-                // -----------------------------------
-
-                final boolean winStatus = isWin;
-                System.out.println("[CLIENT] Game Over. You Win? " + winStatus);
-
-                Platform.runLater(() -> SceneManager.showGameOverPopup(winStatus));
+                // Bersihkan entity & tampilkan popup dilakukan render loop (GameEventQueue)
+                System.out.println("[CLIENT] Game Over. You Win? " + isWin);
+                events.claim(GameEvent.GAME_OVER).a = isWin ? 1 : 0;
             }
 
-            // ================= STATE & SYNC =================
-
-            case "STATE" -> parseState(data); // Posisi Player & Waktu
-            case "MAP" -> parseMap(data); // Load awal map
-
             // ================= LOBBY & SYSTEM =================
 
             case "YOUR_ID" -> {
@@ -222,46 +268,18 @@ public class PacketParser {
             case "RESET_GAME_STATE" -> {
                 System.out.println("[CLIENT] Resetting Game State (Clean Up)...");
 
-                // 1. Hapus semua entity visual
-                gameState.clearBombs();
-                gameState.clearItems();
-                gameState.clearExplosions();
-                gameState.clearPlayers();
-
-                // 2. Reset status Game Over agar input & update jalan lagi
-                gameState.setGameOver(false);
-
-                // 3. (Opsional) Reset waktu visual ke default
-                gameState.setGameTime(60);
+                // Entity, status Game Over & waktu di-reset render loop (GameEventQueue);
+                // baseline delta milik thread ini
+                events.claim(GameEvent.RESET);
+                receivedSnapshots.clear();
             }
 
-            case "MAP_UPDATE" -> {
-                // Server: MAP_UPDATE;rows;cols;data
-                // Sama logicnya dengan MAP awal, bedanya ini update saat main
-                parseMap(data);
-            }
             case "ARENA_SHRINK_WARNING" -> {
                 // Tampilkan peringatan di layar (misal teks merah besar)
                 String pattern = data;
                 System.out.println("[CLIENT] WARNING! ARENA SHRINKING: " + pattern);
                 // SceneManager.showWarning("ZONA BAHAYA! PINDAH KE TENGAH!");
             }
-            case "ARENA_WARNING" -> {
-                // Server: ARENA_WARNING;LR;1;11;1;11
-                try {
-                    String[] info = data.split(";");
-                    String pattern = info[0];
-                    int l = Integer.parseInt(info[1]);
-                    int r = Integer.parseInt(info[2]);
-                    int t = Integer.parseInt(info[3]);
-                    int b = Integer.parseInt(info[4]);
-
-                    gameState.setArenaWarning(pattern, l, r, t, b);
-                    System.out.println("[CLIENT] Arena Shrink Warning: " + pattern);
-                } catch (Exception e) {
-                }
-            }
-
             case "KICKED" -> {
                 System.out.println("[CLIENT] You have been kicked by the host.");
 
@@ -274,7 +292,7 @@ public class PacketParser {
                     alert.setContentText("You have been kicked from the room by the Host.");
                     alert.show();
 
-                    // 2. Bersihkan State
+                    // 2. Bersihkan State (sudah di thread FX)
                     gameState.clearPlayers();
                     gameState.clearBombs();
                     // ... clear lainnya jika perlu
@@ -287,89 +305,58 @@ public class PacketParser {
         }
     }
 
-    private void parseState(String data) {
-        // [FIX PENTING]
-        // Jika status di client sudah Game Over (karena menerima paket GAME_OVER
-        // sebelumnya),
-        // abaikan paket STATE yang baru masuk agar player tidak muncul lagi (jadi
-        // hantu).
-
-        String cleanData = data.replace("|||", "");
-        String[] parts = cleanData.split(";", 2);
-
-        // Parse Waktu
-        if (parts.length >= 1) {
-            try {
-                gameState.setGameTime(Double.parseDouble(parts[0]));
-            } catch (Exception e) {
-            }
-        }
-
-        // Parse Players
-        if (parts.length >= 2)
-            parsePlayers(parts[1]);
-        else
-            gameState.clearPlayers();
-    }
-
-    private void parsePlayers(String section) {
-        if (section.isEmpty() || section.equals("NP")) {
-            gameState.clearPlayers();
+    // STATE;waktu;id,x,y,STATE,DIR#id,...||| (waktu & posisi boleh desimal dari server lama)
+    // Selalu snapshot penuh, jadi sama dengan keyframe: RESYNC berikutnya boleh dikirim lagi
+    private void parseState(TextCursor c) {
+        double time = c.readFixed();
+        if (!c.skip(';') || !c.hasRemaining() || c.peek() == '|' || c.startsWith("NP")) {
+            onSnapshot(time, snapshotRows, 0); // Semua player keluar
+            awaitingKeyframe = false;
             return;
         }
+        int count = 0;
+        do {
+            int[] rows = ensureRows(count + 1);
+            int o = count * SnapshotRing.STRIDE;
+            rows[o] = c.readInt();
+            c.expect(',');
+            rows[o + 1] = (int) c.readFixed();
+            c.expect(',');
+            rows[o + 2] = (int) c.readFixed();
+            c.expect(',');
+            int state = c.readIndex(Wire.STATES);
+            c.expect(',');
+            int dir = c.readIndex(Wire.DIRS);
+            if (state < 0 || dir < 0)
+                continue; // Nama tidak dikenal: lewati player ini saja
+            rows[o + 3] = state;
+            rows[o + 4] = dir;
+            count++;
+        } while (c.skip('#'));
+        onSnapshot(time, snapshotRows, count);
+        awaitingKeyframe = false;
+    }
 
-        List<VisualPlayer> currentPlayers = gameState.getPlayers();
-        List<VisualPlayer> nextFramePlayers = new ArrayList<>();
-
-        String[] playersData = section.split("#");
-        for (String pStr : playersData) {
-            try {
-                String[] pVal = pStr.split(",");
-                int id = Integer.parseInt(pVal[0]);
-                double x = Double.parseDouble(pVal[1]);
-                double y = Double.parseDouble(pVal[2]);
-                String stateStr = pVal[3];
-                String dirStr = pVal[4];
-
-                VisualPlayer targetPlayer = null;
-                for (VisualPlayer existing : currentPlayers) {
-                    if (existing.id == id) {
-                        targetPlayer = existing;
-                        break;
-                    }
-                }
-
-                if (targetPlayer != null) {
-                    targetPlayer.setNetworkState(x, y, VisualPlayer.State.valueOf(stateStr),
-                            VisualPlayer.Direction.valueOf(dirStr));
-                } else {
-                    targetPlayer = new VisualPlayer(id, spriteLoader);
-                    targetPlayer.setNetworkState(x, y, VisualPlayer.State.valueOf(stateStr),
-                            VisualPlayer.Direction.valueOf(dirStr));
-                }
-                nextFramePlayers.add(targetPlayer);
-
-            } catch (Exception e) {
-            }
-        }
-        gameState.updatePlayers(nextFramePlayers);
+    // Isi lama ikut disalin: parser teks mengisi baris sambil membesarkan array
+    private int[] ensureRows(int count) {
+        if (snapshotRows.length < count * SnapshotRing.STRIDE)
+            snapshotRows = Arrays.copyOf(snapshotRows, Math.max(count, snapshotRows.length / SnapshotRing.STRIDE * 2)
+                    * SnapshotRing.STRIDE);
+        return snapshotRows;
     }
 
-    private void parseMap(String data) {
-        try {
-            String[] tokens = data.split(";");
-            int rows = Integer.parseInt(tokens[0]);
-            int cols = Integer.parseInt(tokens[1]);
-            String[] tiles = tokens[2].split(",");
-            int[][] map = new int[rows][cols];
-            for (int i = 0; i < tiles.length; i++) {
-                int x = i % rows;
-                int y = i / rows;
-                map[x][y] = Integer.parseInt(tiles[i]);
-            }
-            gameState.setMap(map);
-        } catch (Exception e) {
+    // MAP;rows;cols;t,t,t,... (tile baris demi baris)
+    private void parseMap(TextCursor c) {
+        int rows = c.readInt();
+        c.expect(';');
+        int cols = c.readInt();
+        c.expect(';');
+        int[][] map = new int[rows][cols];
+        for (int i = 0; i < rows * cols && c.hasRemaining(); i++) {
+            map[i % rows][i / rows] = c.readInt();
+            c.skip(',');
         }
+        events.claim(Opcode.MAP).ref = map;
     }
 
     private void parseRoomUpdate(String data) {
@@ -394,4 +381,264 @@ public class PacketParser {
                 rooms.add(r.trim());
         gameState.updateRooms(rooms);
     }
-}
\ No newline at end of file
+
+    // ================= EVENT (dipakai parser teks & biner) =================
+
+    // Snapshot (baris SnapshotRing.STRIDE int) disalin ke event; player di-update render loop
+    private void onSnapshot(double time, int[] rows, int count) {
+        GameEvent e = events.claim(Opcode.STATE);
+        e.time = time;
+        e.setData(rows, count * SnapshotRing.STRIDE);
+    }
+
+    private void onBombPlaced(int bx, int by) {
+        onTile(Opcode.BOMB_PLACED, bx, by);
+        System.out.println("[CLIENT] Bomb spawned at " + bx + "," + by);
+    }
+
+    // BREAK_TILE / ITEM_PICKED / BOMB_PLACED: cukup posisi tile
+    private void onTile(int type, int x, int y) {
+        GameEvent e = events.claim(type);
+        e.a = x;
+        e.b = y;
+    }
+
+    // Bagian api (x, y, vertical) ditambahkan pemanggil ke data event
+    private GameEvent onExplosion(int cx, int cy) {
+        GameEvent e = events.claim(Opcode.EXPLOSION);
+        e.a = cx;
+        e.b = cy;
+        return e;
+    }
+
+    private void onItemSpawned(int x, int y, int type) {
+        GameEvent e = events.claim(Opcode.SPAWN_ITEM);
+        e.a = x;
+        e.b = y;
+        e.c = type;
+    }
+
+    private void onPlayerDied(int deadId) {
+        // Cek apakah ID yang mati adalah ID saya sendiri
+        boolean me = deadId == gameState.getMyPlayerId();
+        if (me)
+            System.out.println("[CLIENT] You Died!");
+        GameEvent e = events.claim(Opcode.PLAYER_DIED);
+        e.a = deadId;
+        e.b = me ? 1 : 0;
+    }
+
+    private void onArenaWarning(int pattern, int l, int r, int t, int b) {
+        GameEvent e = events.claim(Opcode.ARENA_WARNING);
+        e.a = pattern;
+        e.b = l;
+        e.c = r;
+        e.d = t;
+        e.e = b;
+        System.out.println("[CLIENT] Arena Shrink Warning: " + Wire.SHRINK_PATTERNS[pattern]);
+    }
+
+    // ================= PROTOCOL BINER (layout lihat com.client.protocol.Opcode) =================
+
+    public void parseFrame(FrameReader r) {
+        checkDesync();
+        if (batchRemaining > 0) {
+            collectFrame(r);
+            return;
+        }
+
+        dispatchFrame(r);
+        events.publish();
+    }
+
+    private void dispatchFrame(FrameReader r) {
+        try {
+            int opcode = r.readUByte();
+            switch (opcode) {
+                case Opcode.TEXT -> dispatch(r.readString());
+                case Opcode.BATCH -> startBatch(r.readShort());
+                case Opcode.STATE -> parseKeyframe(r);
+                case Opcode.STATE_DELTA -> parseDelta(r);
+                case Opcode.BOMB_PLACED -> {
+                    int bx = r.readUByte();
+                    int by = r.readUByte();
+                    r.readUByte(); // ownerId
+                    onBombPlaced(bx, by);
+                }
+                case Opcode.EXPLOSION -> {
+                    GameEvent e = onExplosion(r.readUByte(), r.readUByte());
+                    int parts = r.readUByte();
+                    for (int i = 0; i < parts * 3; i++)
+                        e.add(r.readUByte()); // x, y, vertical
+                }
+                case Opcode.BREAK_TILE -> onTile(Opcode.BREAK_TILE, r.readUByte(), r.readUByte());
+                case Opcode.SPAWN_ITEM -> onItemSpawned(r.readUByte(), r.readUByte(), r.readUByte());
+                case Opcode.ITEM_PICKED -> {
+                    r.readUByte(); // playerId
+                    onTile(Opcode.ITEM_PICKED, r.readUByte(), r.readUByte());
+                }
+                case Opcode.PLAYER_DIED -> onPlayerDied(r.readUByte());
+                case Opcode.MAP, Opcode.MAP_UPDATE -> {
+                    int cols = r.readUByte();
+                    int rows = r.readUByte();
+                    int[][] map = new int[cols][rows];
+                    for (int y = 0; y < rows; y++) {
+                        for (int x = 0; x < cols; x++)
+                            map[x][y] = r.readUByte();
+                    }
+                    events.claim(Opcode.MAP).ref = map;
+                }
+                case Opcode.MAP_DIFF -> {
+                    GameEvent e = events.claim(Opcode.MAP_DIFF);
+                    int spans = r.readUByte();
+                    for (int i = 0; i < spans * 5; i++)
+                        e.add(r.readUByte()); // x, y, vertical, panjang, tile
+                }
+                case Opcode.ARENA_WARNING -> onArenaWarning(r.readUByte(),
+                        r.readUByte(), r.readUByte(), r.readUByte(), r.readUByte());
+                default -> System.err.println("Unknown opcode: " + opcode);
+            }
+        } catch (Exception e) {
+            System.err.println("Error parsing frame: " + e.getMessage());
+        }
+    }
+
+    // ================= BATCH PER TICK =================
+
+    private void startBatch(int count) {
+        batchRemaining = count;
+        textBatch.clear();
+        frameBatchLength = 0;
+    }
+
+    // Salin frame ke buffer batch (buffer baca network dipakai ulang untuk frame berikutnya)
+    private void collectFrame(FrameReader r) {
+        int length = r.remaining();
+        if (frameBatch.length < frameBatchLength + 2 + length)
+            frameBatch = Arrays.copyOf(frameBatch, Math.max(frameBatch.length * 2, frameBatchLength + 2 + length));
+        frameBatch[frameBatchLength++] = (byte) (length >>> 8);
+        frameBatch[frameBatchLength++] = (byte) length;
+        r.readBytes(frameBatch, frameBatchLength, length);
+        frameBatchLength += length;
+        if (--batchRemaining == 0)
+            applyFrameBatch();
+    }
+
+    // Satu publish untuk seluruh batch: render loop melihat tick ini utuh atau belum sama sekali
+    private void applyTextBatch() {
+        try {
+            for (String packet : textBatch)
+                dispatch(packet);
+        } finally {
+            events.publish();
+            textBatch.clear();
+        }
+    }
+
+    private void applyFrameBatch() {
+        try {
+            int pos = 0;
+            while (pos < frameBatchLength) {
+                int length = ((frameBatch[pos] & 0xFF) << 8) | (frameBatch[pos + 1] & 0xFF);
+                dispatchFrame(batchReader.wrap(frameBatch, pos + 2, length));
+                pos += 2 + length;
+            }
+        } finally {
+            events.publish();
+            frameBatchLength = 0;
+        }
+    }
+
+    private void parseKeyframe(FrameReader r) {
+        int seq = r.readShort();
+        int time = r.readUByte();
+        int count = r.readUByte();
+        int[] rows = ensureRows(count);
+        for (int i = 0; i < count; i++) {
+            int o = i * SnapshotRing.STRIDE;
+            rows[o] = r.readUByte();
+            rows[o + 1] = r.readShort();
+            rows[o + 2] = r.readShort();
+            int stateDir = r.readUByte();
+            rows[o + 3] = stateDir >> 4;
+            rows[o + 4] = stateDir & 0x0F;
+        }
+        receivedSnapshots.store(seq, rows, count);
+        onSnapshot(time, rows, count);
+        awaitingKeyframe = false;
+        acknowledge(seq, true);
+    }
+
+    // Delta terhadap snapshot baseSeq yang sudah kita ACK sebelumnya
+    private void parseDelta(FrameReader r) {
+        int seq = r.readShort();
+        int baseSeq = r.readShort();
+        int time = r.readUByte();
+        int entries = r.readUByte();
+        if (!receivedSnapshots.contains(baseSeq)) {
+            // Baseline sudah hilang (mis. setelah RESET_GAME_STATE)
+            requestResync();
+            return;
+        }
+
+        int count = receivedSnapshots.count(baseSeq);
+        int[] rows = ensureRows(count + entries);
+        System.arraycopy(receivedSnapshots.rows(baseSeq), 0, rows, 0, count * SnapshotRing.STRIDE);
+        for (int i = 0; i < entries; i++) {
+            int id = r.readUByte();
+            int flags = r.readUByte();
+            int o = SnapshotRing.find(rows, count, id);
+            if ((flags & Opcode.DELTA_GONE) != 0) {
+                if (o >= 0) {
+                    // Geser sisa baris supaya urutan player tetap sama dengan server
+                    System.arraycopy(rows, o + SnapshotRing.STRIDE, rows, o,
+                            count * SnapshotRing.STRIDE - o - SnapshotRing.STRIDE);
+                    count--;
+                }
+                continue;
+            }
+            if ((flags & Opcode.DELTA_NEW) != 0) {
+                if (o < 0)
+                    o = count++ * SnapshotRing.STRIDE;
+                rows[o] = id;
+                rows[o + 1] = r.readShort();
+                rows[o + 2] = r.readShort();
+                int stateDir = r.readUByte();
+                rows[o + 3] = stateDir >> 4;
+                rows[o + 4] = stateDir & 0x0F;
+                continue;
+            }
+            int dx = (flags & Opcode.DELTA_X) != 0 ? r.readSignedVarInt() : 0;
+            int dy = (flags & Opcode.DELTA_Y) != 0 ? r.readSignedVarInt() : 0;
+            int stateDir = (flags & Opcode.DELTA_STATE_DIR) != 0 ? r.readUByte() : -1;
+            if (o < 0)
+                continue; // Tidak mungkin kalau baseline sama dengan server
+            rows[o + 1] += dx;
+            rows[o + 2] += dy;
+            if (stateDir >= 0) {
+                rows[o + 3] = stateDir >> 4;
+                rows[o + 4] = stateDir & 0x0F;
+            }
+        }
+        receivedSnapshots.store(seq, rows, count);
+        onSnapshot(time, rows, count);
+        acknowledge(seq, false);
+    }
+
+    // RESYNC sekali saja sampai keyframe / STATE teks berikutnya datang (server juga kirim ulang MAP)
+    private void requestResync() {
+        if (!awaitingKeyframe && replySender != null) {
+            awaitingKeyframe = true;
+            replySender.accept(Wire.RESYNC);
+        }
+    }
+
+    private void acknowledge(int seq, boolean immediately) {
+        if (replySender == null)
+            return;
+        if (immediately || ++snapshotsSinceAck >= ACK_INTERVAL) {
+            snapshotsSinceAck = 0;
+            replySender.accept(Wire.ACK + ";" + seq);
+        }
+    }
+}
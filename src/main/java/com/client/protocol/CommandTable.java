@@ -0,0 +1,58 @@
+package com.client.protocol;
+
+/**
+ * Tabel nama command teks -> kode (biasanya Opcode), dibangun sekali.
+ * Lookup menghitung hash langsung dari karakter pesan (sama dengan
+ * String.hashCode) lalu mencocokkan nama di slot itu, jadi command tidak
+ * perlu di-substring dulu untuk di-switch.
+ */
+public final class CommandTable {
+
+    private final String[] names;
+    private final int[] codes;
+    private final int mask;
+
+    /** names[i] dipetakan ke codes[i]. */
+    public CommandTable(String[] names, int[] codes) {
+        if (names.length != codes.length)
+            throw new IllegalArgumentException("names and codes differ in length");
+        int size = Integer.highestOneBit(Math.max(1, names.length) * 4 - 1) << 1; // Load factor <= 0.5
+        this.names = new String[size];
+        this.codes = new int[size];
+        this.mask = size - 1;
+        for (int i = 0; i < names.length; i++) {
+            int slot = spread(names[i].hashCode()) & mask;
+            while (this.names[slot] != null)
+                slot = (slot + 1) & mask;
+            this.names[slot] = names[i];
+            this.codes[slot] = codes[i];
+        }
+    }
+
+    /** Kode untuk s[start, end), atau -1 jika bukan command di tabel. */
+    public int lookup(CharSequence s, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++)
+            h = 31 * h + s.charAt(i);
+        int length = end - start;
+        for (int slot = spread(h) & mask;; slot = (slot + 1) & mask) {
+            String name = names[slot];
+            if (name == null)
+                return -1;
+            if (name.length() == length && matches(name, s, start))
+                return codes[slot];
+        }
+    }
+
+    private static boolean matches(String name, CharSequence s, int start) {
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != s.charAt(start + i))
+                return false;
+        }
+        return true;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+}
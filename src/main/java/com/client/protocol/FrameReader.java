@@ -0,0 +1,83 @@
+package com.client.protocol;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cursor baca di atas byte[] (satu frame). Bisa di-wrap ulang ke buffer lain
+ * tanpa alokasi.
+ */
+public final class FrameReader {
+
+    private byte[] buf;
+    private int pos;
+    private int limit;
+
+    public FrameReader wrap(byte[] data, int offset, int length) {
+        this.buf = data;
+        this.pos = offset;
+        this.limit = offset + length;
+        return this;
+    }
+
+    public boolean hasRemaining() {
+        return pos < limit;
+    }
+
+    public int position() {
+        return pos;
+    }
+
+    public int remaining() {
+        return limit - pos;
+    }
+
+    public void readBytes(byte[] dst, int offset, int length) {
+        check(length);
+        System.arraycopy(buf, pos, dst, offset, length);
+        pos += length;
+    }
+
+    public int readUByte() {
+        check(1);
+        return buf[pos++] & 0xFF;
+    }
+
+    public int readShort() {
+        check(2);
+        int v = ((buf[pos] & 0xFF) << 8) | (buf[pos + 1] & 0xFF);
+        pos += 2;
+        return v;
+    }
+
+    public int readVarInt() {
+        int result = 0;
+        int shift = 0;
+        while (true) {
+            int b = readUByte();
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return result;
+            shift += 7;
+            if (shift > 28)
+                throw new IllegalStateException("VarInt too long");
+        }
+    }
+
+    public int readSignedVarInt() {
+        int v = readVarInt();
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    public String readString() {
+        int len = readVarInt();
+        check(len);
+        String s = new String(buf, pos, len, StandardCharsets.UTF_8);
+        pos += len;
+        return s;
+    }
+
+    private void check(int n) {
+        if (pos + n > limit)
+            throw new IllegalStateException("Frame underflow");
+    }
+}
@@ -0,0 +1,107 @@
+package com.client.protocol;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Buffer tulis untuk frame biner. Bisa dipakai ulang (reset) supaya
+ * encoding tidak alokasi per pesan, kecuali toByteArray() di akhir.
+ */
+public final class FrameWriter {
+
+    private byte[] buf;
+    private int pos = 0;
+    private int frameStart = -1;
+
+    public FrameWriter() {
+        this(256);
+    }
+
+    public FrameWriter(int initialCapacity) {
+        buf = new byte[initialCapacity];
+    }
+
+    public void reset() {
+        pos = 0;
+        frameStart = -1;
+    }
+
+    public int size() {
+        return pos;
+    }
+
+    /** Posisi tulis saat ini, bisa dipakai bersama patchByte() untuk backpatch. */
+    public int position() {
+        return pos;
+    }
+
+    public void patchByte(int at, int v) {
+        buf[at] = (byte) v;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buf, pos);
+    }
+
+    /** Mulai frame baru: sisakan 2 byte panjang lalu tulis opcode. */
+    public FrameWriter beginFrame(int opcode) {
+        ensure(3);
+        frameStart = pos;
+        pos += 2;
+        buf[pos++] = (byte) opcode;
+        return this;
+    }
+
+    /** Tutup frame: isi 2 byte panjang yang disisakan beginFrame(). */
+    public void endFrame() {
+        int length = pos - frameStart - 2;
+        if (length > 0xFFFF)
+            throw new IllegalStateException("Frame too large: " + length);
+        buf[frameStart] = (byte) (length >>> 8);
+        buf[frameStart + 1] = (byte) length;
+        frameStart = -1;
+    }
+
+    public FrameWriter writeByte(int v) {
+        ensure(1);
+        buf[pos++] = (byte) v;
+        return this;
+    }
+
+    public FrameWriter writeShort(int v) {
+        ensure(2);
+        buf[pos++] = (byte) (v >>> 8);
+        buf[pos++] = (byte) v;
+        return this;
+    }
+
+    /** Unsigned varint (7 bit per byte). */
+    public FrameWriter writeVarInt(int v) {
+        ensure(5);
+        while ((v & ~0x7F) != 0) {
+            buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[pos++] = (byte) v;
+        return this;
+    }
+
+    /** Signed varint (zigzag), untuk delta yang bisa negatif. */
+    public FrameWriter writeSignedVarInt(int v) {
+        return writeVarInt((v << 1) ^ (v >> 31));
+    }
+
+    public FrameWriter writeString(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buf, pos, bytes.length);
+        pos += bytes.length;
+        return this;
+    }
+
+    private void ensure(int extra) {
+        if (pos + extra > buf.length)
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+    }
+}
@@ -0,0 +1,59 @@
+package com.client.protocol;
+
+/**
+ * Opcode frame biner (server -> client).
+ *
+ * Format frame: [u16 panjang][u8 opcode][payload], panjang = 1 + panjang payload.
+ * Semua angka big-endian. Layout payload per opcode:
+ *
+ * TEXT          : string (pesan teks lama apa adanya, untuk pesan yang jarang)
+ * STATE         : u16 seq, u8 waktu, u8 jumlah, lalu per player: u8 id, u16 x, u16 y, u8 (state << 4 | dir)
+ * STATE_DELTA   : u16 seq, u16 baseSeq, u8 waktu, u8 jumlah entry, lalu per entry: u8 id, u8 flags, diikuti
+ *                 (flags NEW) u16 x, u16 y, u8 stateDir | (DX) svarint dx | (DY) svarint dy | (SD) u8 stateDir.
+ *                 Jumlah entry 0 = tidak ada yang berubah (keepalive).
+ * BOMB_PLACED   : u8 x, u8 y, u8 ownerId
+ * EXPLOSION     : u8 cx, u8 cy, u8 jumlah part, lalu per part: u8 x, u8 y, u8 vertical(0/1)
+ * BREAK_TILE    : u8 x, u8 y
+ * SPAWN_ITEM    : u8 x, u8 y, u8 itemType
+ * ITEM_PICKED   : u8 playerId, u8 x, u8 y, u8 itemType
+ * PLAYER_DIED   : u8 playerId
+ * MAP/MAP_UPDATE: u8 cols, u8 rows, lalu cols*rows u8 tile (baris demi baris, sama seperti teks).
+ *                 Map penuh hanya dikirim saat game mulai dan saat RESYNC.
+ * MAP_DIFF      : u8 jumlah span, lalu per span: u8 x, u8 y, u8 arah (0 = horizontal, 1 = vertical),
+ *                 u8 panjang, u8 tile. Versi teks: MAP_DIFF;x,y,H|V,panjang,tile;...
+ * ARENA_WARNING : u8 pattern (0 = LR, 1 = TB), u8 left, u8 right, u8 top, u8 bottom
+ * BATCH         : u16 jumlah; frame sebanyak itu setelahnya adalah satu tick (event + STATE)
+ *                 dan diterapkan client sekaligus. Versi teks: baris "BATCH;n" diikuti n baris.
+ *
+ * STATE adalah keyframe lengkap, STATE_DELTA relatif ke snapshot baseSeq yang
+ * sudah di-ACK client (lihat {@link WireCodec#writeStateDelta}).
+ *
+ * string = varint panjang byte + UTF-8. Tabel enum (state, dir, item) ada di {@link Wire}.
+ */
+public final class Opcode {
+
+    public static final int TEXT = 0;
+    public static final int STATE = 1;
+    public static final int BOMB_PLACED = 2;
+    public static final int EXPLOSION = 3;
+    public static final int BREAK_TILE = 4;
+    public static final int SPAWN_ITEM = 5;
+    public static final int ITEM_PICKED = 6;
+    public static final int PLAYER_DIED = 7;
+    public static final int MAP = 8;
+    public static final int MAP_UPDATE = 9;
+    public static final int ARENA_WARNING = 10;
+    public static final int STATE_DELTA = 11;
+    public static final int BATCH = 12;
+    public static final int MAP_DIFF = 13;
+
+    // Flag entry STATE_DELTA
+    public static final int DELTA_NEW = 1;
+    public static final int DELTA_X = 2;
+    public static final int DELTA_Y = 4;
+    public static final int DELTA_STATE_DIR = 8;
+    public static final int DELTA_GONE = 16;
+
+    private Opcode() {
+    }
+}
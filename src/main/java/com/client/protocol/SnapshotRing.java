@@ -0,0 +1,70 @@
+package com.client.protocol;
+
+import java.util.Arrays;
+
+/**
+ * Riwayat snapshot player terakhir, di-index dengan seq 16 bit.
+ * Server menyimpan snapshot yang dikirim (calon baseline delta), client
+ * menyimpan snapshot yang diterima (baseline untuk menerapkan delta).
+ *
+ * Satu snapshot = count baris STRIDE int: id, x, y, index state, index dir.
+ * Array yang dikembalikan rows() milik ring dan akan ditimpa setelah
+ * capacity snapshot berikutnya.
+ */
+public final class SnapshotRing {
+
+    public static final int STRIDE = 5;
+    public static final int SEQ_MASK = 0xFFFF;
+
+    private final int mask;
+    private final int[] seqs;
+    private final int[] counts;
+    private final int[][] rows;
+
+    /** capacity harus pangkat dua (<= 65536) supaya slot tetap konsisten saat seq wrap. */
+    public SnapshotRing(int capacity) {
+        if (Integer.bitCount(capacity) != 1 || capacity > SEQ_MASK + 1)
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        mask = capacity - 1;
+        seqs = new int[capacity];
+        counts = new int[capacity];
+        rows = new int[capacity][STRIDE * 4];
+        clear();
+    }
+
+    public void clear() {
+        Arrays.fill(seqs, -1);
+    }
+
+    /** Salin count baris dari data ke slot milik seq. */
+    public void store(int seq, int[] data, int count) {
+        int slot = seq & mask;
+        int len = count * STRIDE;
+        if (rows[slot].length < len)
+            rows[slot] = new int[len];
+        System.arraycopy(data, 0, rows[slot], 0, len);
+        seqs[slot] = seq & SEQ_MASK;
+        counts[slot] = count;
+    }
+
+    public boolean contains(int seq) {
+        return seq >= 0 && seqs[seq & mask] == (seq & SEQ_MASK);
+    }
+
+    public int[] rows(int seq) {
+        return rows[seq & mask];
+    }
+
+    public int count(int seq) {
+        return counts[seq & mask];
+    }
+
+    /** Offset baris dengan id tersebut, atau -1. */
+    public static int find(int[] data, int count, int id) {
+        for (int i = 0; i < count; i++) {
+            if (data[i * STRIDE] == id)
+                return i * STRIDE;
+        }
+        return -1;
+    }
+}
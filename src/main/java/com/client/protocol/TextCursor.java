@@ -0,0 +1,164 @@
+package com.client.protocol;
+
+/**
+ * Cursor baca di atas satu pesan teks (CharSequence), pasangan FrameReader
+ * untuk protocol teks. Angka, boolean, dan nama enum dibaca langsung dari
+ * karakter tanpa substring / split, jadi decode STATE tidak mengalokasikan
+ * apa pun. Bisa di-wrap ulang ke pesan berikutnya.
+ *
+ * Method read*() berhenti tepat sebelum pemisah (',', ';', '#', dst);
+ * pemisah dilewati dengan skip() / expect().
+ */
+public final class TextCursor {
+
+    private CharSequence text;
+    private int pos;
+    private int limit;
+
+    public TextCursor wrap(CharSequence s) {
+        this.text = s;
+        this.pos = 0;
+        this.limit = s.length();
+        return this;
+    }
+
+    public boolean hasRemaining() {
+        return pos < limit;
+    }
+
+    /** Karakter berikutnya tanpa maju, atau -1 di akhir pesan. */
+    public int peek() {
+        return pos < limit ? text.charAt(pos) : -1;
+    }
+
+    /** Lewati c jika itu karakter berikutnya. */
+    public boolean skip(char c) {
+        if (pos < limit && text.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    public void expect(char c) {
+        if (!skip(c))
+            throw error("'" + c + "'");
+    }
+
+    /** Maju sampai (tidak termasuk) karakter c berikutnya, atau ke akhir pesan. */
+    public void skipTo(char c) {
+        while (pos < limit && text.charAt(pos) != c)
+            pos++;
+    }
+
+    /** Apakah sisa pesan diawali s (tanpa maju). */
+    public boolean startsWith(String s) {
+        if (limit - pos < s.length())
+            return false;
+        for (int i = 0; i < s.length(); i++) {
+            if (text.charAt(pos + i) != s.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    /** Command di awal pesan (sampai ';' pertama, ';' ikut dilewati), lihat CommandTable. */
+    public int readCommand(CommandTable table) {
+        int start = pos;
+        skipTo(';');
+        int code = table.lookup(text, start, pos);
+        skip(';');
+        return code;
+    }
+
+    public int readInt() {
+        boolean negative = skip('-');
+        int start = pos;
+        int value = 0;
+        while (pos < limit) {
+            int d = text.charAt(pos) - '0';
+            if (d < 0 || d > 9)
+                break;
+            value = value * 10 + d;
+            pos++;
+        }
+        if (pos == start)
+            throw error("digit");
+        return negative ? -value : value;
+    }
+
+    /** Angka desimal tanpa eksponen ("42", "-1.5", "48.0"). */
+    public double readFixed() {
+        boolean negative = skip('-');
+        int start = pos;
+        long whole = 0;
+        while (pos < limit) {
+            int d = text.charAt(pos) - '0';
+            if (d < 0 || d > 9)
+                break;
+            whole = whole * 10 + d;
+            pos++;
+        }
+        double value = whole;
+        if (skip('.')) {
+            long fraction = 0;
+            long scale = 1;
+            while (pos < limit) {
+                int d = text.charAt(pos) - '0';
+                if (d < 0 || d > 9)
+                    break;
+                if (scale < 1_000_000_000_000L) { // Digit setelahnya tidak mengubah double
+                    fraction = fraction * 10 + d;
+                    scale *= 10;
+                }
+                pos++;
+            }
+            value += (double) fraction / scale;
+        }
+        if (pos == start)
+            throw error("number");
+        return negative ? -value : value;
+    }
+
+    public boolean readBoolean() {
+        if (startsWith("true")) {
+            pos += 4;
+            return true;
+        }
+        if (startsWith("false")) {
+            pos += 5;
+            return false;
+        }
+        throw error("boolean");
+    }
+
+    /**
+     * Token berikutnya (huruf, digit, '_') dicocokkan ke tabel nama (mis.
+     * Wire.STATES). @return index di tabel, atau -1 jika tidak ada.
+     */
+    public int readIndex(String[] table) {
+        int start = pos;
+        while (pos < limit && isWordChar(text.charAt(pos)))
+            pos++;
+        int length = pos - start;
+        for (int i = 0; i < table.length; i++) {
+            String name = table[i];
+            if (name.length() != length)
+                continue;
+            int j = 0;
+            while (j < length && text.charAt(start + j) == name.charAt(j))
+                j++;
+            if (j == length)
+                return i;
+        }
+        return -1;
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    private IllegalArgumentException error(String expected) {
+        return new IllegalArgumentException("Expected " + expected + " at " + pos + " in: " + text);
+    }
+}
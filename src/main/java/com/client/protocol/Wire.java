@@ -0,0 +1,41 @@
+package com.client.protocol;
+
+/**
+ * Konstanta yang harus sama persis di client dan server:
+ * handshake protocol dan tabel ordinal enum yang dikirim sebagai byte.
+ */
+public final class Wire {
+
+    /**
+     * Dikirim client sebagai baris teks pertama untuk minta mode biner.
+     * Server membalas baris yang sama; setelah balasan itu semua pesan
+     * server -> client berupa frame biner. Client -> server tetap teks.
+     */
+    public static final String HELLO_BINARY = "PROTO;BINARY";
+
+    /**
+     * Client (mode biner) -> server: ACK;seq = snapshot seq sudah diterima dan
+     * boleh jadi baseline delta. RESYNC = baseline / map lokal tidak valid, minta
+     * map penuh + keyframe STATE.
+     */
+    public static final String ACK = "ACK";
+    public static final String RESYNC = "RESYNC";
+
+    // Urutan HARUS sama dengan VisualPlayer.State / VisualPlayer.Direction / VisualItem.Type
+    public static final String[] STATES = { "IDLE", "WALK", "PLACE", "DEAD" };
+    public static final String[] DIRS = { "DOWN", "UP", "LEFT", "RIGHT" };
+    public static final String[] ITEMS = { "BOMB_UP", "FIRE_UP", "SPEED_UP" };
+    public static final String[] SHRINK_PATTERNS = { "LR", "TB" };
+
+    private Wire() {
+    }
+
+    /** Index nama di tabel, atau 0 jika tidak ketemu. */
+    public static int indexOf(String[] table, String name) {
+        for (int i = 0; i < table.length; i++) {
+            if (table[i].equals(name))
+                return i;
+        }
+        return 0;
+    }
+}
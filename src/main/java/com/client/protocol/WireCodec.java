@@ -0,0 +1,148 @@
+package com.client.protocol;
+
+/**
+ * Encoder frame biner untuk setiap opcode (layout lihat {@link Opcode}).
+ * Dipakai server saat kirim; client membaca layout yang sama lewat FrameReader.
+ */
+public final class WireCodec {
+
+    private WireCodec() {
+    }
+
+    public static void writeText(FrameWriter w, String line) {
+        w.beginFrame(Opcode.TEXT).writeString(line);
+        w.endFrame();
+    }
+
+    /** Mulai frame STATE (keyframe); lanjutkan dengan writeStatePlayer() sebanyak count lalu endFrame(). */
+    public static void beginState(FrameWriter w, int seq, int time, int count) {
+        w.beginFrame(Opcode.STATE).writeShort(seq).writeByte(clampTime(time)).writeByte(count);
+    }
+
+    public static void writeStatePlayer(FrameWriter w, int id, int x, int y, int state, int dir) {
+        w.writeByte(id).writeShort(x).writeShort(y).writeByte((state << 4) | dir);
+    }
+
+    /**
+     * Frame STATE_DELTA: hanya field yang berubah dari snapshot base ke cur.
+     * Kedua array berisi baris SnapshotRing.STRIDE int (id, x, y, state, dir).
+     */
+    public static void writeStateDelta(FrameWriter w, int seq, int baseSeq, int time,
+            int[] base, int baseCount, int[] cur, int curCount) {
+        final int s = SnapshotRing.STRIDE;
+        w.beginFrame(Opcode.STATE_DELTA).writeShort(seq).writeShort(baseSeq).writeByte(clampTime(time));
+        int countAt = w.position();
+        w.writeByte(0);
+        int entries = 0;
+
+        for (int i = 0; i < curCount; i++) {
+            int o = i * s;
+            int b = SnapshotRing.find(base, baseCount, cur[o]);
+            int stateDir = (cur[o + 3] << 4) | cur[o + 4];
+            if (b < 0) {
+                w.writeByte(cur[o]).writeByte(Opcode.DELTA_NEW)
+                        .writeShort(cur[o + 1]).writeShort(cur[o + 2]).writeByte(stateDir);
+                entries++;
+                continue;
+            }
+            int dx = cur[o + 1] - base[b + 1];
+            int dy = cur[o + 2] - base[b + 2];
+            int flags = 0;
+            if (dx != 0)
+                flags |= Opcode.DELTA_X;
+            if (dy != 0)
+                flags |= Opcode.DELTA_Y;
+            if (cur[o + 3] != base[b + 3] || cur[o + 4] != base[b + 4])
+                flags |= Opcode.DELTA_STATE_DIR;
+            if (flags == 0)
+                continue;
+            w.writeByte(cur[o]).writeByte(flags);
+            if (dx != 0)
+                w.writeSignedVarInt(dx);
+            if (dy != 0)
+                w.writeSignedVarInt(dy);
+            if ((flags & Opcode.DELTA_STATE_DIR) != 0)
+                w.writeByte(stateDir);
+            entries++;
+        }
+
+        for (int i = 0; i < baseCount; i++) {
+            if (SnapshotRing.find(cur, curCount, base[i * s]) < 0) {
+                w.writeByte(base[i * s]).writeByte(Opcode.DELTA_GONE);
+                entries++;
+            }
+        }
+
+        w.patchByte(countAt, entries);
+        w.endFrame();
+    }
+
+    private static int clampTime(int time) {
+        return Math.max(0, Math.min(255, time));
+    }
+
+    /** Header batch: count frame berikutnya milik satu tick. */
+    public static void writeBatch(FrameWriter w, int count) {
+        w.beginFrame(Opcode.BATCH).writeShort(count);
+        w.endFrame();
+    }
+
+    public static void writeBombPlaced(FrameWriter w, int x, int y, int ownerId) {
+        w.beginFrame(Opcode.BOMB_PLACED).writeByte(x).writeByte(y).writeByte(ownerId);
+        w.endFrame();
+    }
+
+    /** parts berisi triple (x, y, vertical 0/1) sebanyak partCount. */
+    public static void writeExplosion(FrameWriter w, int cx, int cy, int[] parts, int partCount) {
+        w.beginFrame(Opcode.EXPLOSION).writeByte(cx).writeByte(cy).writeByte(partCount);
+        for (int i = 0; i < partCount; i++)
+            w.writeByte(parts[i * 3]).writeByte(parts[i * 3 + 1]).writeByte(parts[i * 3 + 2]);
+        w.endFrame();
+    }
+
+    public static void writeBreakTile(FrameWriter w, int x, int y) {
+        w.beginFrame(Opcode.BREAK_TILE).writeByte(x).writeByte(y);
+        w.endFrame();
+    }
+
+    public static void writeSpawnItem(FrameWriter w, int x, int y, int itemType) {
+        w.beginFrame(Opcode.SPAWN_ITEM).writeByte(x).writeByte(y).writeByte(itemType);
+        w.endFrame();
+    }
+
+    public static void writeItemPicked(FrameWriter w, int playerId, int x, int y, int itemType) {
+        w.beginFrame(Opcode.ITEM_PICKED).writeByte(playerId).writeByte(x).writeByte(y).writeByte(itemType);
+        w.endFrame();
+    }
+
+    public static void writePlayerDied(FrameWriter w, int playerId) {
+        w.beginFrame(Opcode.PLAYER_DIED).writeByte(playerId);
+        w.endFrame();
+    }
+
+    /** opcode = MAP (awal game) atau MAP_UPDATE (arena menyusut). map[x][y]. */
+    public static void writeMap(FrameWriter w, int opcode, int[][] map) {
+        int cols = map.length;
+        int rows = map[0].length;
+        w.beginFrame(opcode).writeByte(cols).writeByte(rows);
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < cols; x++)
+                w.writeByte(map[x][y]);
+        }
+        w.endFrame();
+    }
+
+    /** spans berisi 5 int per span: x, y, vertical (0/1), panjang, tile. */
+    public static void writeMapDiff(FrameWriter w, int[] spans, int spanCount) {
+        w.beginFrame(Opcode.MAP_DIFF).writeByte(spanCount);
+        for (int i = 0; i < spanCount * 5; i++)
+            w.writeByte(spans[i]);
+        w.endFrame();
+    }
+
+    public static void writeArenaWarning(FrameWriter w, int pattern, int left, int right, int top, int bottom) {
+        w.beginFrame(Opcode.ARENA_WARNING).writeByte(pattern)
+                .writeByte(left).writeByte(right).writeByte(top).writeByte(bottom);
+        w.endFrame();
+    }
+}
@@ -0,0 +1,144 @@
+package com.client.render;
+
+import java.io.InputStream;
+import java.util.HashMap;
+
+import com.client.entities.VisualItem;
+import com.client.entities.VisualPlayer;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
+
+/**
+ * Semua gambar game (tile, bom, ledakan, item, frame player) di-decode sekali
+ * lalu dibagi ke semua entity. Entity baru (mis. tiap bagian api ledakan)
+ * cukup mengambil referensi Image / Image[] dari sini, tanpa membaca PNG lagi.
+ *
+ * preload() dipanggil saat aplikasi mulai supaya decode tidak terjadi di
+ * tengah game; aset yang belum di-preload tetap di-load saat pertama dipakai.
+ * Array frame yang dikembalikan dipakai bersama: jangan diubah isinya.
+ *
+ * Aset yang gagal di-load dikembalikan null (frame: array berisi null di
+ * posisi itu), entity memakai gambar fallback masing-masing.
+ */
+public final class Assets {
+
+    public static final int TILE_SIZE = 32;
+    public static final int BOMB_SIZE = 28;
+
+    private static final String ROOT = "/com/client/assets/";
+
+    private static final HashMap<String, Image> images = new HashMap<>();
+    private static final HashMap<String, Image[]> frames = new HashMap<>();
+    private static final SpriteLoader playerLoader = new SpriteLoader();
+
+    private Assets() {
+    }
+
+    /** Decode semua aset gameplay sekarang (panggil dari thread FX saat start). */
+    public static void preload() {
+        ground();
+        breakable();
+        unbreakable();
+        bombFrames();
+        explosionFrames(false);
+        explosionFrames(true);
+        for (VisualItem.Type type : VisualItem.Type.values())
+            item(type);
+        VisualPlayer.preload();
+    }
+
+    // ===================== TILE =======================
+
+    public static Image ground() {
+        return image("tiles/ground.png", TILE_SIZE);
+    }
+
+    public static Image breakable() {
+        return image("tiles/break.png", TILE_SIZE);
+    }
+
+    public static Image unbreakable() {
+        return image("tiles/unbreak.png", TILE_SIZE);
+    }
+
+    // ===================== ENTITY =======================
+
+    /** 3 frame bom berkedip (BOMB_SIZE). */
+    public static Image[] bombFrames() {
+        return sequence("bomb/bom", 3, BOMB_SIZE);
+    }
+
+    /** 4 frame api ledakan, horizontal atau vertical. */
+    public static Image[] explosionFrames(boolean vertical) {
+        return sequence(vertical ? "explosion/e_vertical" : "explosion/e_horizontal", 4, TILE_SIZE);
+    }
+
+    public static Image item(VisualItem.Type type) {
+        return switch (type) {
+            case BOMB_UP -> image("item/BombUp.png", TILE_SIZE);
+            case FIRE_UP -> image("item/FireUp.png", TILE_SIZE);
+            case SPEED_UP -> image("item/SpeedUp.png", TILE_SIZE);
+        };
+    }
+
+    /**
+     * Frame player base0..base(count-1), sudah di-resize ke 32x32 (SpriteLoader).
+     * Frame yang tidak ada dilewati; kalau tidak ada sama sekali, 1 gambar kosong.
+     */
+    public static synchronized Image[] playerFrames(String base, int count) {
+        Image[] cached = frames.get(base);
+        if (cached != null)
+            return cached;
+        Image[] temp = new Image[count];
+        int idx = 0;
+        for (int i = 0; i < count; i++) {
+            Image img = playerLoader.get(base + i);
+            if (img != null) temp[idx++] = img;
+        }
+        Image[] result;
+        if (idx == 0) {
+            result = new Image[] { new WritableImage(1, 1) }; // Fallback blank image
+        } else {
+            result = new Image[idx];
+            System.arraycopy(temp, 0, result, 0, idx);
+        }
+        frames.put(base, result);
+        return result;
+    }
+
+    // ===================== LOADER =======================
+
+    // <prefix>1.png .. <prefix><count>.png
+    private static synchronized Image[] sequence(String prefix, int count, int size) {
+        Image[] cached = frames.get(prefix);
+        if (cached != null)
+            return cached;
+        Image[] result = new Image[count];
+        for (int i = 0; i < count; i++)
+            result[i] = image(prefix + (i + 1) + ".png", size);
+        frames.put(prefix, result);
+        return result;
+    }
+
+    private static synchronized Image image(String path, int size) {
+        if (images.containsKey(path))
+            return images.get(path); // Termasuk null: gagal sekali, tidak dicoba lagi
+        Image img = null;
+        try (InputStream stream = Assets.class.getResourceAsStream(ROOT + path)) {
+            if (stream == null) {
+                System.err.println("Asset missing: " + ROOT + path);
+            } else {
+                img = new Image(stream, size, size, false, false);
+                if (img.isError()) {
+                    System.err.println("Error loading: " + ROOT + path);
+                    img = null;
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error loading " + ROOT + path + ": " + e.getMessage());
+        }
+        images.put(path, img);
+        return img;
+    }
+}
@@ -22,12 +22,13 @@ public class GameCanvas extends Canvas {
             double dt = (now - last) / 1e9;
             last = now;
             
-            // 1. Update animasi visual (bukan logika game)
-            if (gameState != null) {
-                gameState.updateVisuals(dt);
-            }
+            // 1. Terapkan event dari network (batch tick selalu utuh)
+            gameState.drainEvents();
 
-            // 2. Render
+            // 2. Update animasi visual (bukan logika game)
+            gameState.updateVisuals(dt);
+
+            // 3. Render
             renderer.render();
         }
     };
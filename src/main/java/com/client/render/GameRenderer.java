@@ -1,8 +1,9 @@
 package com.client.render;
 
 import com.client.ClientGameState;
+import com.client.PlayerRegistry;
+import com.client.TileSlots;
 import com.client.entities.VisualBomb;
-import com.client.entities.VisualExplosion;
 import com.client.entities.VisualItem;
 import com.client.entities.VisualPlayer;
 
@@ -25,10 +26,10 @@ public class GameRenderer {
         this.gameState = gameState;
         this.scaler = scaler;
 
-        // Load Tiles (Pastikan path benar)
-        ground = new Image(getClass().getResourceAsStream("/com/client/assets/tiles/ground.png"), tile, tile, false, false);
-        breakable = new Image(getClass().getResourceAsStream("/com/client/assets/tiles/break.png"), tile, tile, false, false);
-        unbreak = new Image(getClass().getResourceAsStream("/com/client/assets/tiles/unbreak.png"), tile, tile, false, false);
+        // Tiles (sudah di-decode di Assets, tidak dibaca ulang tiap game)
+        ground = Assets.ground();
+        breakable = Assets.breakable();
+        unbreak = Assets.unbreakable();
     }
 
     public void render() {
@@ -61,14 +62,17 @@ public class GameRenderer {
 
         // 3. Render Entities (Urutan Penting)
         // Item di bawah bom/player
-        for (VisualItem item : gameState.getItems()) item.render(g);
+        TileSlots<VisualItem> items = gameState.getItems();
+        for (int i = 0; i < items.size(); i++) items.get(i).render(g);
         
         // Bom dan Ledakan
-        for (VisualBomb bomb : gameState.getBombs()) bomb.render(g);
-        for (VisualExplosion exp : gameState.getExplosions()) exp.render(g);
+        TileSlots<VisualBomb> bombs = gameState.getBombs();
+        for (int i = 0; i < bombs.size(); i++) bombs.get(i).render(g);
+        for (int i = 0; i < gameState.getExplosionCount(); i++) gameState.getExplosion(i).render(g);
         
         // Player paling atas
-        for (VisualPlayer player : gameState.getPlayers()) player.render(g);
+        PlayerRegistry players = gameState.getPlayers();
+        for (int i = 0; i < players.size(); i++) players.get(i).render(g);
         
         // 4. RENDER DEBUG (Jika aktif, tekan tombol debug utk lihat hitbox)
         if (gameState.isDebugMode()) {
@@ -113,7 +117,9 @@ public class GameRenderer {
         double hitboxSize = 20.5;
         double offset = (tile - hitboxSize) / 2.0;
 
-        for (VisualPlayer p : gameState.getPlayers()) {
+        PlayerRegistry players = gameState.getPlayers();
+        for (int i = 0; i < players.size(); i++) {
+            VisualPlayer p = players.get(i);
             g.setStroke(Color.LIME);
             g.strokeRect(p.getX() + offset, p.getY() + offset, hitboxSize, hitboxSize);
         }
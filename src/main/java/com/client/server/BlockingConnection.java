@@ -0,0 +1,114 @@
+package com.client.server;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+
+import com.client.server.SimpleTestServer.ClientHandler;
+
+/**
+ * Mode blocking: satu thread reader (readLine) + satu thread writer (write + flush)
+ * per socket. Thread dibuat lewat ThreadFactory, jadi bisa platform atau
+ * virtual thread (lihat ServerThreads). Tick room tidak pernah menunggu
+ * socket: enqueue() hanya memasukkan pesan ke OutboundQueue, writer menulis
+ * semua pesan yang terkumpul lalu flush sekali setiap flush().
+ */
+final class BlockingConnection implements Connection, Runnable {
+
+    private final Socket socket;
+    private final ThreadFactory threads;
+    private final OutboundQueue outbound = new OutboundQueue();
+    private ClientHandler handler;
+    private volatile boolean closed = false;
+
+    BlockingConnection(Socket socket, ThreadFactory threads) {
+        this.socket = socket;
+        this.threads = threads;
+    }
+
+    void bind(ClientHandler handler) {
+        this.handler = handler;
+    }
+
+    /** Mulai thread reader (thread writer dibuat dari dalam reader). */
+    void start() {
+        threads.newThread(this).start();
+    }
+
+    @Override
+    public void run() {
+        try {
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+            threads.newThread(() -> writeLoop(out)).start();
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+            handler.onConnected();
+            String msg;
+            while ((msg = in.readLine()) != null)
+                handler.handleMessage(msg);
+        } catch (IOException e) {
+        } finally {
+            close();
+            handler.onDisconnected();
+        }
+    }
+
+    private void writeLoop(OutputStream out) {
+        List<byte[]> batch = new ArrayList<>();
+        try {
+            while (outbound.awaitDrain(batch) >= 0) {
+                for (byte[] data : batch)
+                    out.write(data);
+                out.flush();
+                batch.clear();
+            }
+        } catch (IOException e) {
+            close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void enqueue(byte[] data, boolean conflatable) {
+        if (closed)
+            return;
+        if (!outbound.offer(data, conflatable)) {
+            System.out.println("[OUTBOUND] " + getRemoteAddress() + " over queue limit, disconnecting");
+            close();
+        }
+    }
+
+    @Override
+    public void flush() {
+        if (!closed)
+            outbound.requestFlush();
+    }
+
+    @Override
+    public OutboundQueue outbound() {
+        return outbound;
+    }
+
+    @Override
+    public void close() {
+        if (closed)
+            return;
+        closed = true;
+        outbound.close();
+        try {
+            socket.close();
+        } catch (IOException e) {
+        }
+    }
+
+    @Override
+    public String getRemoteAddress() {
+        return String.valueOf(socket.getInetAddress());
+    }
+}
@@ -0,0 +1,39 @@
+package com.client.server;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Transport satu client (blocking socket atau NIO).
+ * ClientHandler hanya bicara lewat interface ini, jadi logic protocol
+ * tidak peduli pesan dikirim lewat thread atau selector.
+ *
+ * Setiap koneksi punya OutboundQueue sendiri: enqueue() hanya menaruh data,
+ * flush() membangunkan writer. Tick room tidak pernah menunggu socket.
+ */
+interface Connection {
+
+    /**
+     * Taruh data (baris teks lengkap dengan '\n' atau frame biner) di antrian
+     * tanpa membangunkan writer. conflatable = boleh diganti data conflatable
+     * berikutnya yang belum terkirim (STATE). Client yang antriannya terus
+     * melewati limit akan diputus. Aman dipanggil dari thread mana pun.
+     */
+    void enqueue(byte[] data, boolean conflatable);
+
+    /** Bangunkan writer untuk mengirim semua yang sudah di-enqueue (satu write + flush). */
+    void flush();
+
+    /** Kirim satu baris pesan (tanpa '\n') dan langsung flush. */
+    default void send(String msg) {
+        enqueue((msg + "\n").getBytes(StandardCharsets.UTF_8), false);
+        flush();
+    }
+
+    /** Tutup koneksi. ClientHandler.onDisconnected() akan dipanggil sekali. */
+    void close();
+
+    String getRemoteAddress();
+
+    /** Untuk metrics (depth antrian per client). */
+    OutboundQueue outbound();
+}
@@ -0,0 +1,109 @@
+package com.client.server;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Antrian input player per room: banyak producer (thread socket / IoLoop),
+ * satu consumer (worker pemilik room di awal tick).
+ *
+ * Lock-free dan tanpa alokasi: tiap input dipadatkan ke satu long lalu
+ * ditaruh di ring berukuran tetap (algoritma bounded queue Vyukov: tiap slot
+ * punya sequence, producer rebutan posisi lewat CAS). Urutan keluar = urutan
+ * posisi yang didapat producer. Kalau penuh, offer() gagal dan input dibuang
+ * (pengirimnya pasti sedang flood).
+ *
+ * Format long: [playerId 16 bit][kind 8 bit][key 8 bit][pressed 1 bit].
+ */
+final class InputQueue {
+
+    static final int KIND_MOVE = 0;
+    static final int KIND_PLACE_BOMB = 1;
+
+    /** Nilai poll() saat antrian kosong (input valid selalu >= 0). */
+    static final long EMPTY = -1;
+
+    private final long[] buffer;
+    private final AtomicLongArray sequence;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private long head = 0; // Hanya consumer
+
+    InputQueue(int capacity) {
+        if (Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        this.buffer = new long[capacity];
+        this.sequence = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++)
+            sequence.set(i, i);
+    }
+
+    // ===================== ENCODE / DECODE =======================
+
+    static long move(int playerId, int key, boolean pressed) {
+        return encode(playerId, KIND_MOVE, key, pressed);
+    }
+
+    static long placeBomb(int playerId) {
+        return encode(playerId, KIND_PLACE_BOMB, 0, false);
+    }
+
+    private static long encode(int playerId, int kind, int key, boolean pressed) {
+        return ((long) (playerId & 0xFFFF) << 17) | ((kind & 0xFF) << 9) | ((key & 0xFF) << 1) | (pressed ? 1 : 0);
+    }
+
+    static int playerId(long input) {
+        return (int) (input >>> 17) & 0xFFFF;
+    }
+
+    static int kind(long input) {
+        return (int) (input >>> 9) & 0xFF;
+    }
+
+    static int key(long input) {
+        return (int) (input >>> 1) & 0xFF;
+    }
+
+    static boolean pressed(long input) {
+        return (input & 1) != 0;
+    }
+
+    // ===================== QUEUE =======================
+
+    /** Aman dari thread mana pun. @return false jika penuh (input dibuang) */
+    boolean offer(long input) {
+        long pos = tail.get();
+        while (true) {
+            int i = (int) (pos & mask);
+            long diff = sequence.get(i) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    buffer[i] = input;
+                    sequence.lazySet(i, pos + 1); // Publish ke consumer
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false; // Slot ini belum dikuras consumer: penuh
+            } else {
+                pos = tail.get(); // Producer lain sudah ambil posisi ini
+            }
+        }
+    }
+
+    /** Hanya worker pemilik room. @return input berikutnya, atau EMPTY */
+    long poll() {
+        int i = (int) (head & mask);
+        if (sequence.get(i) != head + 1)
+            return EMPTY;
+        long input = buffer[i];
+        sequence.lazySet(i, head + buffer.length); // Slot bebas untuk putaran berikutnya
+        head++;
+        return input;
+    }
+
+    boolean isEmpty() {
+        return sequence.get((int) (head & mask)) != head + 1;
+    }
+}
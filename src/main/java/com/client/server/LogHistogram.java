@@ -0,0 +1,85 @@
+package com.client.server;
+
+import java.util.Arrays;
+
+/**
+ * Histogram nilai non-negatif (nanodetik) dengan bucket logaritmik dan memori
+ * tetap: tiap pangkat dua dibagi 8 sub-bucket, jadi error persentil maksimal
+ * ~12.5% dari nilainya. record() hanya beberapa operasi bit + increment, tanpa
+ * alokasi, cukup murah untuk dipanggil beberapa kali per tick.
+ *
+ * Tidak thread-safe: satu penulis, pembaca hanya di thread yang sama
+ * (ringkasan dibuat penulis lalu dipublikasikan, lihat TickMetrics).
+ * Public karena dipakai juga oleh tool load test (lihat tools.BotLoadGenerator).
+ */
+public final class LogHistogram {
+
+    private static final int SUB_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS + 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count = 0;
+    private long sum = 0;
+    private long max = 0;
+
+    public void record(long value) {
+        if (value < 0)
+            value = 0;
+        counts[indexOf(value)]++;
+        count++;
+        sum += value;
+        if (value > max)
+            max = value;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public long max() {
+        return max;
+    }
+
+    public long mean() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    /** Batas atas bucket yang memuat persentil p (0..1), dibatasi max. */
+    public long percentile(double p) {
+        if (count == 0)
+            return 0;
+        long rank = Math.max(1, (long) Math.ceil(p * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank)
+                return Math.min(max, upperBound(i));
+        }
+        return max;
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+        int msb = 63 - Long.numberOfLeadingZeros(value);
+        int shift = msb - SUB_BITS;
+        int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int index) {
+        if (index < SUB_BUCKETS)
+            return index;
+        int shift = index / SUB_BUCKETS - 1;
+        long sub = index % SUB_BUCKETS;
+        return ((SUB_BUCKETS + sub + 1) << shift) - 1;
+    }
+}
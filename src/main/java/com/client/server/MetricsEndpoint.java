@@ -0,0 +1,336 @@
+package com.client.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.client.server.SimpleTestServer.ClientHandler;
+import com.client.server.SimpleTestServer.Room;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Permukaan metrics opsional untuk monitoring / autoscaling:
+ * - JMX (--jmx): MBean server + satu MBean per room
+ * - HTTP (--metrics-port=N): GET /metrics di 127.0.0.1:N, JSON berisi room,
+ *   persentil tick, RTT & antrian per client, trafik, dan counter JVM
+ *
+ * Semua angka dibaca dari thread lain tanpa lock (volatile / ringkasan
+ * immutable), jadi cukup perkiraan, tapi tidak pernah memperlambat tick.
+ */
+final class MetricsEndpoint {
+
+    private static final String DOMAIN = "com.client.server";
+
+    private static volatile boolean jmxEnabled = false;
+
+    private MetricsEndpoint() {
+    }
+
+    static void start(ServerOptions options) throws IOException {
+        if (options.jmx) {
+            register(objectName(DOMAIN + ":type=Server"), new ServerStats());
+            jmxEnabled = true;
+            System.out.println("[METRICS] JMX MBeans registered under " + DOMAIN);
+        }
+        if (options.metricsPort > 0) {
+            InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), options.metricsPort);
+            HttpServer http = HttpServer.create(address, 0);
+            http.createContext("/metrics", MetricsEndpoint::handleMetrics);
+            http.start(); // Satu thread dispatcher bawaan, cukup untuk scrape sesekali
+            System.out.println("[METRICS] HTTP metrics on http://" + address.getHostString() + ":"
+                    + options.metricsPort + "/metrics");
+        }
+    }
+
+    private static ObjectName objectName(String name) {
+        try {
+            return new ObjectName(name);
+        } catch (JMException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static ObjectName register(ObjectName name, Object mbean) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(name))
+                server.registerMBean(mbean, name);
+        } catch (JMException e) {
+            System.err.println("[METRICS] Cannot register " + name + ": " + e.getMessage());
+        }
+        return name;
+    }
+
+    // ===================== MBEAN PER ROOM =======================
+
+    static void registerRoom(Room room) {
+        if (jmxEnabled)
+            register(roomName(room), new RoomStats(room));
+    }
+
+    static void unregisterRoom(Room room) {
+        if (!jmxEnabled)
+            return;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = roomName(room);
+            if (server.isRegistered(name))
+                server.unregisterMBean(name);
+        } catch (JMException e) {
+            System.err.println("[METRICS] Cannot unregister room " + room.name + ": " + e.getMessage());
+        }
+    }
+
+    private static ObjectName roomName(Room room) {
+        return objectName(DOMAIN + ":type=Room,name=" + ObjectName.quote(room.name));
+    }
+
+    static final class RoomStats implements RoomStatsMXBean {
+        private final Room room;
+
+        RoomStats(Room room) {
+            this.room = room;
+        }
+
+        @Override
+        public String getName() {
+            return room.name;
+        }
+
+        @Override
+        public int getClientCount() {
+            return room.clients.size();
+        }
+
+        @Override
+        public boolean isGameStarted() {
+            return room.gameStarted;
+        }
+
+        @Override
+        public long getTickP50Micros() {
+            TickMetrics.Summary s = room.tickSummary();
+            return s == null ? 0 : s.p50(TickMetrics.Phase.TOTAL) / 1000;
+        }
+
+        @Override
+        public long getTickP99Micros() {
+            TickMetrics.Summary s = room.tickSummary();
+            return s == null ? 0 : s.p99(TickMetrics.Phase.TOTAL) / 1000;
+        }
+
+        @Override
+        public long getTickMaxMicros() {
+            TickMetrics.Summary s = room.tickSummary();
+            return s == null ? 0 : s.max(TickMetrics.Phase.TOTAL) / 1000;
+        }
+
+        @Override
+        public long getOverBudgetTicks() {
+            TickMetrics.Summary s = room.tickSummary();
+            return s == null ? 0 : s.overBudget;
+        }
+    }
+
+    // ===================== ANGKA GLOBAL =======================
+
+    static final class ServerStats implements ServerStatsMXBean {
+
+        @Override
+        public int getRoomCount() {
+            return SimpleTestServer.activeRooms().size();
+        }
+
+        @Override
+        public int getLobbySize() {
+            return SimpleTestServer.lobby().size();
+        }
+
+        @Override
+        public int getConnectionCount() {
+            return allClients().size();
+        }
+
+        @Override
+        public long getMessagesSent() {
+            long total = 0;
+            for (int i = 0; i < ServerMetrics.TYPE_NAMES.length; i++)
+                total += ServerMetrics.messagesSent(i);
+            return total;
+        }
+
+        @Override
+        public long getBytesSent() {
+            long total = 0;
+            for (int i = 0; i < ServerMetrics.TYPE_NAMES.length; i++)
+                total += ServerMetrics.bytesSent(i);
+            return total;
+        }
+
+        @Override
+        public long getDroppedInputs() {
+            long total = 0;
+            for (ClientHandler c : allClients())
+                total += c.droppedInputs;
+            return total;
+        }
+
+        @Override
+        public int getMaxOutboundQueueDepth() {
+            int max = 0;
+            for (ClientHandler c : allClients())
+                max = Math.max(max, c.outboundQueue().depth());
+            return max;
+        }
+
+        @Override
+        public long getAllocatedBytes() {
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            if (!(threads instanceof com.sun.management.ThreadMXBean hotspot)
+                    || !hotspot.isThreadAllocatedMemorySupported() || !hotspot.isThreadAllocatedMemoryEnabled())
+                return -1;
+            long total = 0;
+            for (long bytes : hotspot.getThreadAllocatedBytes(hotspot.getAllThreadIds())) {
+                if (bytes > 0)
+                    total += bytes;
+            }
+            return total;
+        }
+
+        @Override
+        public long getGcCount() {
+            long total = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+                total += Math.max(0, gc.getCollectionCount());
+            return total;
+        }
+
+        @Override
+        public long getGcTimeMillis() {
+            long total = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+                total += Math.max(0, gc.getCollectionTime());
+            return total;
+        }
+    }
+
+    private static List<ClientHandler> allClients() {
+        List<ClientHandler> all = new ArrayList<>(SimpleTestServer.lobby());
+        for (Room r : SimpleTestServer.activeRooms())
+            all.addAll(r.clients);
+        return all;
+    }
+
+    // ===================== HTTP /metrics =======================
+
+    private static void handleMetrics(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = renderJson().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    static String renderJson() {
+        ServerStats server = new ServerStats();
+        StringBuilder sb = new StringBuilder(1024);
+        sb.append("{\"connections\":").append(server.getConnectionCount())
+                .append(",\"lobby\":").append(server.getLobbySize())
+                .append(",\"droppedInputs\":").append(server.getDroppedInputs())
+                .append(",\"rooms\":[");
+        boolean firstRoom = true;
+        for (Room r : SimpleTestServer.activeRooms()) {
+            if (!firstRoom)
+                sb.append(',');
+            firstRoom = false;
+            appendRoom(sb, r);
+        }
+        sb.append("],\"traffic\":{");
+        for (int i = 0; i < ServerMetrics.TYPE_NAMES.length; i++) {
+            if (i > 0)
+                sb.append(',');
+            sb.append('"').append(ServerMetrics.TYPE_NAMES[i]).append("\":{\"messages\":")
+                    .append(ServerMetrics.messagesSent(i)).append(",\"bytes\":")
+                    .append(ServerMetrics.bytesSent(i)).append('}');
+        }
+        sb.append("},\"jvm\":{\"heapUsed\":")
+                .append(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed())
+                .append(",\"allocatedBytes\":").append(server.getAllocatedBytes())
+                .append(",\"gcCount\":").append(server.getGcCount())
+                .append(",\"gcTimeMillis\":").append(server.getGcTimeMillis())
+                .append(",\"threads\":").append(ManagementFactory.getThreadMXBean().getThreadCount())
+                .append("}}");
+        return sb.toString();
+    }
+
+    private static void appendRoom(StringBuilder sb, Room r) {
+        sb.append("{\"name\":");
+        quote(sb, r.name);
+        sb.append(",\"clients\":").append(r.clients.size())
+                .append(",\"gameStarted\":").append(r.gameStarted);
+        TickMetrics.Summary s = r.tickSummary();
+        if (s != null) {
+            sb.append(",\"tick\":{\"ticks\":").append(s.ticks)
+                    .append(",\"overBudget\":").append(s.overBudget)
+                    .append(",\"p50Micros\":").append(s.p50(TickMetrics.Phase.TOTAL) / 1000)
+                    .append(",\"p99Micros\":").append(s.p99(TickMetrics.Phase.TOTAL) / 1000)
+                    .append(",\"maxMicros\":").append(s.max(TickMetrics.Phase.TOTAL) / 1000)
+                    .append('}');
+        }
+        sb.append(",\"players\":[");
+        boolean first = true;
+        for (ClientHandler c : r.clients) {
+            if (!first)
+                sb.append(',');
+            first = false;
+            OutboundQueue q = c.outboundQueue();
+            long rtt = c.rttNanos;
+            sb.append("{\"id\":").append(c.playerId).append(",\"address\":");
+            quote(sb, c.getRemoteAddress());
+            sb.append(",\"binary\":").append(c.isBinary())
+                    .append(",\"rttMicros\":").append(rtt < 0 ? -1 : rtt / 1000)
+                    .append(",\"queueDepth\":").append(q.depth())
+                    .append(",\"queueBytes\":").append(q.bytes())
+                    .append(",\"droppedInputs\":").append(c.droppedInputs)
+                    .append('}');
+        }
+        sb.append("]}");
+    }
+
+    private static void quote(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char ch = s.charAt(i);
+            switch (ch) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                default -> {
+                    if (ch < 0x20)
+                        sb.append(String.format("\\u%04x", (int) ch));
+                    else
+                        sb.append(ch);
+                }
+            }
+        }
+        sb.append('"');
+    }
+}
@@ -0,0 +1,310 @@
+package com.client.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.client.server.SimpleTestServer.ClientHandler;
+
+/**
+ * Transport non-blocking: beberapa thread I/O, masing-masing satu Selector.
+ * Koneksi idle di lobby tidak punya thread sendiri; per koneksi hanya ada
+ * buffer baris kecil + OutboundQueue. Buffer direct dipakai bersama
+ * oleh semua koneksi dalam satu IoLoop.
+ */
+final class NioServer {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_LINE_LENGTH = 8 * 1024; // Proteksi memori dari client nakal
+
+    private final int port;
+    private final IoLoop[] loops;
+
+    NioServer(int port, int ioThreads) {
+        this.port = port;
+        this.loops = new IoLoop[ioThreads];
+    }
+
+    /** Blocking: accept loop jalan di thread pemanggil. */
+    void run() throws IOException {
+        for (int i = 0; i < loops.length; i++) {
+            loops[i] = new IoLoop();
+            Thread t = new Thread(loops[i], "nio-io-" + i);
+            t.setDaemon(true);
+            t.start();
+        }
+
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress(port));
+            int next = 0;
+            while (true) {
+                SocketChannel channel = server.accept(); // Blocking accept
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                IoLoop loop = loops[next];
+                next = (next + 1) % loops.length;
+                loop.register(new NioConnection(channel, loop));
+            }
+        }
+    }
+
+    // ===================== IO LOOP (SATU SELECTOR PER THREAD) =======================
+    static final class IoLoop implements Runnable {
+        private final Selector selector;
+        private final Queue<NioConnection> pendingRegistrations = new ConcurrentLinkedQueue<>();
+        private final Queue<NioConnection> pendingWrites = new ConcurrentLinkedQueue<>();
+        private final Queue<NioConnection> pendingCloses = new ConcurrentLinkedQueue<>();
+
+        // Dipakai bergantian oleh semua koneksi di loop ini (hanya thread loop yang menyentuh)
+        private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final ByteBuffer writeBuffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        IoLoop() throws IOException {
+            this.selector = Selector.open();
+        }
+
+        void register(NioConnection conn) {
+            pendingRegistrations.add(conn);
+            selector.wakeup();
+        }
+
+        void requestWrite(NioConnection conn) {
+            pendingWrites.add(conn);
+            selector.wakeup();
+        }
+
+        void requestClose(NioConnection conn) {
+            pendingCloses.add(conn);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                try {
+                    selector.select();
+                    processRegistrations();
+                    processWrites();
+                    processCloses();
+
+                    Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                    while (it.hasNext()) {
+                        SelectionKey key = it.next();
+                        it.remove();
+                        NioConnection conn = (NioConnection) key.attachment();
+                        if (!key.isValid()) {
+                            conn.closeNow();
+                            continue;
+                        }
+                        if (key.isReadable())
+                            conn.onReadable(readBuffer);
+                        if (key.isValid() && key.isWritable())
+                            conn.flush(writeBuffer);
+                    }
+                } catch (IOException e) {
+                    System.err.println("[NIO] Selector error: " + e.getMessage());
+                }
+            }
+        }
+
+        private void processRegistrations() {
+            NioConnection conn;
+            while ((conn = pendingRegistrations.poll()) != null) {
+                try {
+                    conn.key = conn.channel.register(selector, SelectionKey.OP_READ, conn);
+                    conn.handler = SimpleTestServer.accept(conn);
+                    conn.handler.onConnected();
+                } catch (ClosedChannelException e) {
+                    conn.closeNow();
+                }
+            }
+        }
+
+        private void processWrites() {
+            NioConnection conn;
+            while ((conn = pendingWrites.poll()) != null)
+                conn.flush(writeBuffer);
+        }
+
+        private void processCloses() {
+            NioConnection conn;
+            while ((conn = pendingCloses.poll()) != null)
+                conn.closeNow();
+        }
+    }
+
+    // ===================== KONEKSI NIO =======================
+    static final class NioConnection implements Connection {
+        final SocketChannel channel;
+        private final IoLoop loop;
+        SelectionKey key;
+        ClientHandler handler;
+
+        // Inbound: potongan baris yang belum ketemu '\n' (hanya thread loop)
+        private byte[] lineBuffer = new byte[128];
+        private int lineLength = 0;
+
+        // Outbound: diisi thread mana pun, dikuras oleh thread loop. Hanya dikuras
+        // saat staged kosong, supaya client lambat menumpuk di OutboundQueue
+        // (di sana STATE di-conflate dan limit diperiksa)
+        private final OutboundQueue outbound = new OutboundQueue();
+        private final ArrayDeque<byte[]> staged = new ArrayDeque<>();
+        private int headOffset = 0;
+        private final AtomicBoolean writeRequested = new AtomicBoolean(false);
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+
+        NioConnection(SocketChannel channel, IoLoop loop) {
+            this.channel = channel;
+            this.loop = loop;
+        }
+
+        @Override
+        public void enqueue(byte[] data, boolean conflatable) {
+            if (closed.get())
+                return;
+            if (!outbound.offer(data, conflatable)) {
+                System.out.println("[OUTBOUND] " + getRemoteAddress() + " over queue limit, disconnecting");
+                close();
+            }
+        }
+
+        @Override
+        public void flush() {
+            if (!closed.get() && writeRequested.compareAndSet(false, true))
+                loop.requestWrite(this);
+        }
+
+        @Override
+        public OutboundQueue outbound() {
+            return outbound;
+        }
+
+        @Override
+        public void close() {
+            if (!closed.get())
+                loop.requestClose(this);
+        }
+
+        @Override
+        public String getRemoteAddress() {
+            try {
+                return String.valueOf(channel.getRemoteAddress());
+            } catch (IOException e) {
+                return "?";
+            }
+        }
+
+        void onReadable(ByteBuffer buf) {
+            buf.clear();
+            int n;
+            try {
+                n = channel.read(buf);
+            } catch (IOException e) {
+                n = -1;
+            }
+            if (n < 0) {
+                closeNow();
+                return;
+            }
+            buf.flip();
+            while (buf.hasRemaining()) {
+                byte b = buf.get();
+                if (b == '\n') {
+                    int len = lineLength;
+                    if (len > 0 && lineBuffer[len - 1] == '\r')
+                        len--;
+                    String line = new String(lineBuffer, 0, len, StandardCharsets.UTF_8);
+                    lineLength = 0;
+                    handler.handleMessage(line);
+                } else {
+                    if (lineLength == lineBuffer.length) {
+                        if (lineLength >= MAX_LINE_LENGTH) {
+                            closeNow();
+                            return;
+                        }
+                        lineBuffer = Arrays.copyOf(lineBuffer, lineLength * 2);
+                    }
+                    lineBuffer[lineLength++] = b;
+                }
+            }
+        }
+
+        /** Kuras antrian outbound lewat buffer direct milik loop. Hanya thread loop. */
+        void flush(ByteBuffer buf) {
+            writeRequested.set(false);
+            if (closed.get() || key == null)
+                return;
+            if (staged.isEmpty())
+                outbound.drainTo(staged);
+
+            try {
+                while (!staged.isEmpty()) {
+                    buf.clear();
+                    int offset = headOffset;
+                    for (byte[] m : staged) {
+                        int n = Math.min(buf.remaining(), m.length - offset);
+                        buf.put(m, offset, n);
+                        offset = 0;
+                        if (!buf.hasRemaining())
+                            break;
+                    }
+                    buf.flip();
+                    int written = channel.write(buf);
+                    consume(written);
+                    if (staged.isEmpty())
+                        outbound.drainTo(staged); // Pesan yang masuk selama menulis
+                    if (buf.hasRemaining()) {
+                        // Socket penuh: tunggu OP_WRITE
+                        key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                        return;
+                    }
+                }
+                key.interestOps(SelectionKey.OP_READ);
+            } catch (IOException e) {
+                closeNow();
+            }
+        }
+
+        private void consume(int written) {
+            while (written > 0) {
+                byte[] head = staged.peekFirst();
+                int avail = head.length - headOffset;
+                if (written >= avail) {
+                    staged.pollFirst();
+                    written -= avail;
+                    headOffset = 0;
+                } else {
+                    headOffset += written;
+                    written = 0;
+                }
+            }
+        }
+
+        void closeNow() {
+            if (!closed.compareAndSet(false, true))
+                return;
+            if (key != null)
+                key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+            }
+            outbound.close();
+            staged.clear();
+            if (handler != null)
+                handler.onDisconnected();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.client.server;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Antrian outbound satu client, dipakai oleh kedua transport.
+ *
+ * - Producer (tick room, thread socket) hanya enqueue; writer baru dibangunkan
+ *   lewat flush(), jadi semua pesan satu tick keluar dalam satu write + flush.
+ * - Pesan conflatable (STATE) yang belum terkirim diganti dengan yang terbaru,
+ *   pesan lain (EXPLOSION, PLAYER_DIED, ...) tidak pernah dibuang.
+ * - Dibatasi per byte: client yang terus di atas limit (lambat / macet)
+ *   harus diputus oleh pemanggil saat offer() mengembalikan false.
+ *
+ * Pakai ReentrantLock (bukan synchronized) supaya writer virtual thread
+ * tidak mem-pin carrier saat menunggu.
+ */
+final class OutboundQueue {
+
+    static final int DEFAULT_LIMIT_BYTES = 256 * 1024;
+    private static final long OVER_LIMIT_GRACE_NANOS = TimeUnit.SECONDS.toNanos(2);
+    private static final int HARD_LIMIT_FACTOR = 4;
+
+    private final int limitBytes;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+
+    // Dilindungi lock. Slot null = STATE lama yang sudah di-conflate.
+    private final List<byte[]> pending = new ArrayList<>();
+    private int conflatableIndex = -1;
+    private int depth = 0;
+    private int bytes = 0;
+    private boolean flushRequested = false;
+    private boolean closed = false;
+    private long overLimitSince = 0;
+
+    // Metrics tambahan (dibaca reporter tanpa lock, cukup perkiraan)
+    private volatile int peakDepth = 0;
+    private volatile long conflatedCount = 0;
+
+    OutboundQueue() {
+        this(DEFAULT_LIMIT_BYTES);
+    }
+
+    OutboundQueue(int limitBytes) {
+        this.limitBytes = limitBytes;
+    }
+
+    /**
+     * Masukkan pesan tanpa membangunkan writer.
+     *
+     * @return false jika client sudah terlalu lama di atas limit (atau jauh
+     *         melewatinya) dan harus diputus
+     */
+    boolean offer(byte[] data, boolean conflatable) {
+        lock.lock();
+        try {
+            if (closed)
+                return true;
+            if (conflatable && conflatableIndex >= 0) {
+                // Buang STATE lama yang belum terkirim; yang baru ditaruh di ekor
+                // supaya urutannya tetap setelah event yang masuk sebelumnya
+                bytes -= pending.get(conflatableIndex).length;
+                pending.set(conflatableIndex, null);
+                depth--;
+                conflatedCount++;
+            }
+            if (conflatable)
+                conflatableIndex = pending.size();
+            pending.add(data);
+            depth++;
+            bytes += data.length;
+            if (depth > peakDepth)
+                peakDepth = depth;
+            return checkLimit();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean checkLimit() {
+        if (bytes <= limitBytes) {
+            overLimitSince = 0;
+            return true;
+        }
+        if (bytes > limitBytes * HARD_LIMIT_FACTOR)
+            return false;
+        long now = System.nanoTime();
+        if (overLimitSince == 0)
+            overLimitSince = now;
+        return now - overLimitSince < OVER_LIMIT_GRACE_NANOS;
+    }
+
+    /**
+     * Tandai ada data siap kirim dan bangunkan writer blocking.
+     * @return true jika ada yang perlu ditulis
+     */
+    boolean requestFlush() {
+        lock.lock();
+        try {
+            flushRequested = true;
+            flushed.signal();
+            return depth > 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Pindahkan semua pesan ke out (non-blocking, untuk NIO). */
+    int drainTo(Collection<byte[]> out) {
+        lock.lock();
+        try {
+            return drainLocked(out);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Tunggu flush() lalu pindahkan semua pesan ke out (writer blocking).
+     * @return jumlah pesan, atau -1 jika antrian sudah ditutup
+     */
+    int awaitDrain(Collection<byte[]> out) throws InterruptedException {
+        lock.lock();
+        try {
+            while (!closed && !(flushRequested && depth > 0)) {
+                flushRequested = false;
+                flushed.await();
+            }
+            if (closed)
+                return -1;
+            return drainLocked(out);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int drainLocked(Collection<byte[]> out) {
+        int n = 0;
+        for (byte[] data : pending) {
+            if (data != null) {
+                out.add(data);
+                n++;
+            }
+        }
+        pending.clear();
+        conflatableIndex = -1;
+        depth = 0;
+        bytes = 0;
+        flushRequested = false;
+        overLimitSince = 0;
+        return n;
+    }
+
+    void close() {
+        lock.lock();
+        try {
+            closed = true;
+            pending.clear();
+            conflatableIndex = -1;
+            depth = 0;
+            bytes = 0;
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ===================== METRICS =======================
+
+    int depth() {
+        lock.lock();
+        try {
+            return depth;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int bytes() {
+        lock.lock();
+        try {
+            return bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long conflatedCount() {
+        return conflatedCount;
+    }
+
+    /** Depth tertinggi sejak pemanggilan terakhir, lalu reset. */
+    int takePeakDepth() {
+        int peak = peakDepth;
+        peakDepth = depth;
+        return peak;
+    }
+}
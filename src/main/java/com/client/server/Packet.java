@@ -0,0 +1,208 @@
+package com.client.server;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.client.protocol.FrameWriter;
+import com.client.protocol.Opcode;
+import com.client.protocol.Wire;
+import com.client.protocol.WireCodec;
+
+/**
+ * Satu pesan server -> client dalam dua bentuk: baris teks (protocol lama)
+ * dan frame biner. Masing-masing bentuk baru di-encode saat ada client yang
+ * memakainya. Pesan tanpa encoder biner dikirim sebagai frame TEXT.
+ *
+ * Hasil encode di-cache: broadcast ke N client = satu encode, lalu byte[]
+ * yang sama masuk ke OutboundQueue semua penerima. Array hasil textLine() /
+ * frame() dianggap read-only, jangan pernah diubah setelah dikembalikan.
+ */
+final class Packet {
+
+    private static final ThreadLocal<FrameWriter> WRITER = ThreadLocal.withInitial(FrameWriter::new);
+
+    private final int opcode;
+    private final Supplier<String> textEncoder;
+    private final Consumer<FrameWriter> binaryEncoder;
+    private final boolean conflatable;
+    private volatile String text;
+    private volatile byte[] textLine;
+    private volatile byte[] frame;
+
+    private Packet(int opcode, String text, Supplier<String> textEncoder, Consumer<FrameWriter> binaryEncoder,
+            boolean conflatable) {
+        this.opcode = opcode;
+        this.text = text;
+        this.textEncoder = textEncoder;
+        this.binaryEncoder = binaryEncoder;
+        this.conflatable = conflatable;
+    }
+
+    static Packet text(String line) {
+        return new Packet(Opcode.TEXT, line, null, null, false);
+    }
+
+    static Packet of(int opcode, Supplier<String> textEncoder, Consumer<FrameWriter> binaryEncoder) {
+        return new Packet(opcode, null, textEncoder, binaryEncoder, false);
+    }
+
+    /** Snapshot yang boleh digantikan snapshot berikutnya kalau belum terkirim (lihat OutboundQueue). */
+    private static Packet conflatable(int opcode, Supplier<String> textEncoder, Consumer<FrameWriter> binaryEncoder) {
+        return new Packet(opcode, null, textEncoder, binaryEncoder, true);
+    }
+
+    boolean isConflatable() {
+        return conflatable;
+    }
+
+    /** Jenis pesan (Opcode), juga untuk pesan yang dikirim sebagai teks. */
+    int opcode() {
+        return opcode;
+    }
+
+    /** Bentuk teks (di-cache, cukup dibuat sekali walau dikirim ke banyak client). */
+    String text() {
+        String t = text;
+        if (t == null)
+            text = t = textEncoder.get();
+        return t;
+    }
+
+    /** Bentuk teks siap kirim (UTF-8 + '\n'), di-encode sekali untuk semua penerima. */
+    byte[] textLine() {
+        byte[] b = textLine;
+        if (b == null)
+            textLine = b = (text() + "\n").getBytes(StandardCharsets.UTF_8);
+        return b;
+    }
+
+    /** Bentuk frame biner (dengan prefix panjang), di-encode sekali untuk semua penerima. */
+    byte[] frame() {
+        byte[] b = frame;
+        if (b == null) {
+            // Race antar thread hanya membuat encode ganda dengan hasil sama, aman
+            FrameWriter w = WRITER.get();
+            w.reset();
+            if (binaryEncoder != null)
+                binaryEncoder.accept(w);
+            else
+                WireCodec.writeText(w, text());
+            frame = b = w.toByteArray();
+        }
+        return b;
+    }
+
+    // ===================== FACTORY PESAN GAMEPLAY =======================
+
+    /** Header batch: count pesan berikutnya (event satu tick + STATE) diterapkan client sekaligus. */
+    static Packet batch(int count) {
+        return of(Opcode.BATCH, () -> "BATCH;" + count, w -> WireCodec.writeBatch(w, count));
+    }
+
+    /**
+     * Keyframe STATE. data berisi 5 int per player: id, x, y, index state, index dir
+     * (lihat SnapshotRing). Array harus milik packet ini (tidak diubah lagi setelah dibuat).
+     */
+    static Packet state(int seq, int time, int[] data, int count) {
+        return conflatable(Opcode.STATE, () -> stateText(time, data, count), w -> {
+            WireCodec.beginState(w, seq, time, count);
+            for (int i = 0; i < count; i++) {
+                int o = i * 5;
+                WireCodec.writeStatePlayer(w, data[o], data[o + 1], data[o + 2], data[o + 3], data[o + 4]);
+            }
+            w.endFrame();
+        });
+    }
+
+    /**
+     * Delta STATE relatif ke snapshot baseSeq (hanya untuk client biner).
+     * base di-copy karena slot SnapshotRing bisa ditimpa sebelum packet di-encode.
+     */
+    static Packet stateDelta(int seq, int baseSeq, int time, int[] base, int baseCount, int[] data, int count) {
+        int[] baseCopy = Arrays.copyOf(base, baseCount * 5);
+        return conflatable(Opcode.STATE_DELTA, () -> stateText(time, data, count),
+                w -> WireCodec.writeStateDelta(w, seq, baseSeq, time, baseCopy, baseCount, data, count));
+    }
+
+    private static String stateText(int time, int[] data, int count) {
+        StringBuilder sb = new StringBuilder("STATE;").append(time).append(";");
+        for (int i = 0; i < count; i++) {
+            int o = i * 5;
+            if (i > 0)
+                sb.append("#");
+            sb.append(data[o]).append(",")
+                    .append(data[o + 1]).append(",")
+                    .append(data[o + 2]).append(",")
+                    .append(Wire.STATES[data[o + 3]]).append(",")
+                    .append(Wire.DIRS[data[o + 4]]);
+        }
+        return sb.append("|||").toString();
+    }
+
+    static Packet bombPlaced(int x, int y, int ownerId) {
+        return of(Opcode.BOMB_PLACED, () -> "BOMB_PLACED;" + x + "," + y + ";" + ownerId,
+                w -> WireCodec.writeBombPlaced(w, x, y, ownerId));
+    }
+
+    /** parts: triple (x, y, vertical 0/1), part pertama = pusat ledakan. */
+    static Packet explosion(int cx, int cy, int[] parts, int partCount) {
+        return of(Opcode.EXPLOSION, () -> {
+            StringBuilder sb = new StringBuilder("EXPLOSION;").append(cx).append(",").append(cy);
+            for (int i = 0; i < partCount; i++) {
+                sb.append(";").append(parts[i * 3]).append(",").append(parts[i * 3 + 1])
+                        .append(",").append(parts[i * 3 + 2] != 0);
+            }
+            return sb.toString();
+        }, w -> WireCodec.writeExplosion(w, cx, cy, parts, partCount));
+    }
+
+    static Packet breakTile(int x, int y) {
+        return of(Opcode.BREAK_TILE, () -> "BREAK_TILE;" + x + "," + y, w -> WireCodec.writeBreakTile(w, x, y));
+    }
+
+    static Packet spawnItem(int x, int y, String type) {
+        return of(Opcode.SPAWN_ITEM, () -> "SPAWN_ITEM;" + x + "," + y + "," + type,
+                w -> WireCodec.writeSpawnItem(w, x, y, Wire.indexOf(Wire.ITEMS, type)));
+    }
+
+    static Packet itemPicked(int playerId, int x, int y, String type) {
+        return of(Opcode.ITEM_PICKED, () -> "ITEM_PICKED;" + playerId + "," + x + "," + y + "," + type,
+                w -> WireCodec.writeItemPicked(w, playerId, x, y, Wire.indexOf(Wire.ITEMS, type)));
+    }
+
+    static Packet playerDied(int playerId) {
+        return of(Opcode.PLAYER_DIED, () -> "PLAYER_DIED;" + playerId, w -> WireCodec.writePlayerDied(w, playerId));
+    }
+
+    /** opcode = Opcode.MAP atau Opcode.MAP_UPDATE, command teks mengikuti. Grid di-copy. */
+    static Packet map(String command, int opcode, int[][] liveMap) {
+        int[][] map = new int[liveMap.length][];
+        for (int x = 0; x < liveMap.length; x++)
+            map[x] = liveMap[x].clone();
+        return of(opcode, () -> command + ";" + map.length + ";" + map[0].length + ";"
+                + SimpleTestServer.MapGenerator.convertToString(map),
+                w -> WireCodec.writeMap(w, opcode, map));
+    }
+
+    /** Perubahan tile sebagai span: 5 int per span (x, y, vertical 0/1, panjang, tile). Array milik packet. */
+    static Packet mapDiff(int[] spans, int spanCount) {
+        return of(Opcode.MAP_DIFF, () -> {
+            StringBuilder sb = new StringBuilder("MAP_DIFF");
+            for (int i = 0; i < spanCount; i++) {
+                int o = i * 5;
+                sb.append(";").append(spans[o]).append(",").append(spans[o + 1])
+                        .append(",").append(spans[o + 2] != 0 ? "V" : "H")
+                        .append(",").append(spans[o + 3]).append(",").append(spans[o + 4]);
+            }
+            return sb.toString();
+        }, w -> WireCodec.writeMapDiff(w, spans, spanCount));
+    }
+
+    static Packet arenaWarning(String pattern, int left, int right, int top, int bottom) {
+        return of(Opcode.ARENA_WARNING, () -> "ARENA_WARNING;" + pattern + ";" + left + ";" + right + ";" + top + ";" + bottom,
+                w -> WireCodec.writeArenaWarning(w, Wire.indexOf(Wire.SHRINK_PATTERNS, pattern),
+                        left, right, top, bottom));
+    }
+}
@@ -0,0 +1,162 @@
+package com.client.server;
+
+import java.util.Arrays;
+
+/**
+ * Player satu room dalam bentuk kolom (structure of arrays): satu array per
+ * atribut, index = slot. Loop movement / animasi / snapshot menyapu array
+ * primitif berurutan tanpa pointer chasing dan tanpa alokasi per tick.
+ *
+ * Slot != player id: id dari ClientHandler dipetakan lewat slotOf(). State &
+ * arah disimpan sebagai ordinal Wire.STATES / Wire.DIRS, langsung dipakai
+ * snapshot tanpa lookup string.
+ *
+ * Kolom sengaja package-private (dipakai seperti struct), tapi hanya boleh
+ * disentuh oleh worker pemilik room.
+ */
+final class PlayerTable {
+
+    static final int DEFAULT_MAX_BOMBS = 1;
+    static final int DEFAULT_RANGE = 2;
+    static final double DEFAULT_SPEED = 100.0;
+
+    // Bit input (kolom input)
+    static final int UP = 1;
+    static final int DOWN = 1 << 1;
+    static final int LEFT = 1 << 2;
+    static final int RIGHT = 1 << 3;
+
+    // Ordinal Wire.STATES / Wire.DIRS
+    static final byte STATE_IDLE = 0;
+    static final byte STATE_WALK = 1;
+    static final byte STATE_DEAD = 3;
+    static final byte DIR_DOWN = 0;
+    static final byte DIR_UP = 1;
+    static final byte DIR_LEFT = 2;
+    static final byte DIR_RIGHT = 3;
+
+    private int count = 0;
+    private int[] slotById = new int[0];
+
+    int[] id = new int[4];
+    double[] x = new double[4];
+    double[] y = new double[4];
+    double[] speed = new double[4];
+    byte[] input = new byte[4];
+    byte[] state = new byte[4];
+    byte[] dir = new byte[4];
+    boolean[] dead = new boolean[4];
+    long[] diedAtTick = new long[4]; // TimerWheel.now() saat mati
+    int[] activeBombs = new int[4];
+    int[] bonusBombStock = new int[4];
+    boolean[] firePowerUp = new boolean[4];
+    TimerWheel.Timer[] speedExpiry = new TimerWheel.Timer[4]; // null / tidak pending = tidak sedang boost
+
+    /** Bit input dari nama tombol di pesan INPUT, 0 jika tidak dikenal. */
+    static int inputBit(String key) {
+        return switch (key) {
+            case "UP" -> UP;
+            case "DOWN" -> DOWN;
+            case "LEFT" -> LEFT;
+            case "RIGHT" -> RIGHT;
+            default -> 0;
+        };
+    }
+
+    int size() {
+        return count;
+    }
+
+    /** Tambah player baru, kembalikan slot-nya. */
+    int add(int playerId, double px, double py) {
+        if (count == id.length)
+            grow(count * 2);
+        int s = count++;
+        id[s] = playerId;
+        x[s] = px;
+        y[s] = py;
+        speed[s] = DEFAULT_SPEED;
+        input[s] = 0;
+        state[s] = STATE_IDLE;
+        dir[s] = DIR_DOWN;
+        dead[s] = false;
+        diedAtTick[s] = 0;
+        activeBombs[s] = 0;
+        bonusBombStock[s] = 0;
+        firePowerUp[s] = false;
+        speedExpiry[s] = null;
+
+        if (playerId >= slotById.length) {
+            int old = slotById.length;
+            slotById = Arrays.copyOf(slotById, Math.max(playerId + 1, old * 2));
+            Arrays.fill(slotById, old, slotById.length, -1);
+        }
+        slotById[playerId] = s;
+        return s;
+    }
+
+    /** Slot milik player id, atau -1 jika tidak ada di game ini. */
+    int slotOf(int playerId) {
+        return playerId >= 0 && playerId < slotById.length ? slotById[playerId] : -1;
+    }
+
+    void clear() {
+        Arrays.fill(speedExpiry, 0, count, null);
+        Arrays.fill(slotById, -1);
+        count = 0;
+    }
+
+    int aliveCount() {
+        int alive = 0;
+        for (int s = 0; s < count; s++) {
+            if (!dead[s])
+                alive++;
+        }
+        return alive;
+    }
+
+    void setInput(int s, int bit, boolean pressed) {
+        if (pressed)
+            input[s] |= (byte) bit;
+        else
+            input[s] &= (byte) ~bit;
+    }
+
+    /** State animasi player hidup dari input-nya (prioritas arah: bawah, atas, kiri, kanan). */
+    void updateAnimStates() {
+        for (int s = 0; s < count; s++) {
+            if (dead[s])
+                continue;
+            int in = input[s];
+            if (in == 0) {
+                state[s] = STATE_IDLE;
+                continue;
+            }
+            state[s] = STATE_WALK;
+            if ((in & DOWN) != 0)
+                dir[s] = DIR_DOWN;
+            else if ((in & UP) != 0)
+                dir[s] = DIR_UP;
+            else if ((in & LEFT) != 0)
+                dir[s] = DIR_LEFT;
+            else
+                dir[s] = DIR_RIGHT;
+        }
+    }
+
+    private void grow(int n) {
+        id = Arrays.copyOf(id, n);
+        x = Arrays.copyOf(x, n);
+        y = Arrays.copyOf(y, n);
+        speed = Arrays.copyOf(speed, n);
+        input = Arrays.copyOf(input, n);
+        state = Arrays.copyOf(state, n);
+        dir = Arrays.copyOf(dir, n);
+        dead = Arrays.copyOf(dead, n);
+        diedAtTick = Arrays.copyOf(diedAtTick, n);
+        activeBombs = Arrays.copyOf(activeBombs, n);
+        bonusBombStock = Arrays.copyOf(bonusBombStock, n);
+        firePowerUp = Arrays.copyOf(firePowerUp, n);
+        speedExpiry = Arrays.copyOf(speedExpiry, n);
+    }
+}
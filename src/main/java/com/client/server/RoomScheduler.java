@@ -0,0 +1,230 @@
+package com.client.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import com.client.server.SimpleTestServer.Room;
+
+/**
+ * Scheduler tick untuk SEMUA room di server.
+ * Satu worker per core; setiap room di-shard ke satu worker dan selalu
+ * di-tick oleh thread worker tersebut (state room tetap single-threaded).
+ * Room yang belum mulai main di-park (tidak di-tick) sampai ada aksi baru.
+ * Worker tanpa room aktif tidur tanpa timeout sampai ada room yang di-wake;
+ * room yang di-wake saat worker sedang menunggu tick langsung di-tick sekali.
+ */
+final class RoomScheduler {
+
+    static final long TICK_NANOS = 16_000_000L; // 16ms, sama dengan DT room
+
+    // Berapa tick berturut-turut worker boleh overrun sebelum room dipindah
+    private static final int OVERRUN_LIMIT = 3;
+
+    private final Worker[] workers;
+
+    RoomScheduler(int workerCount) {
+        workers = new Worker[Math.max(1, workerCount)];
+        for (int i = 0; i < workers.length; i++)
+            workers[i] = new Worker(i);
+    }
+
+    void start() {
+        for (Worker w : workers) {
+            Thread t = new Thread(w, "room-worker-" + w.index);
+            t.setDaemon(true);
+            t.start();
+        }
+        System.out.println("[SCHEDULER] Started " + workers.length + " room workers");
+    }
+
+    void shutdown() {
+        for (Worker w : workers) {
+            w.running = false;
+            LockSupport.unpark(w.thread);
+        }
+    }
+
+    int getWorkerCount() {
+        return workers.length;
+    }
+
+    /** Tempelkan room ke worker dengan room paling sedikit. */
+    void register(Room room) {
+        Worker best = workers[0];
+        for (Worker w : workers) {
+            if (w.assigned.get() < best.assigned.get())
+                best = w;
+        }
+        best.assigned.incrementAndGet();
+        room.worker = best;
+        wake(room);
+    }
+
+    /** Dipanggil saat room ditutup. Worker akan membuang room pada tick berikutnya. */
+    void unregister(Room room) {
+        Worker w = room.worker;
+        if (w != null)
+            w.assigned.decrementAndGet();
+    }
+
+    /** Pastikan room ada di daftar aktif worker-nya (idempotent, aman dari thread mana pun). */
+    void wake(Room room) {
+        Worker w = room.worker;
+        if (w != null && room.scheduled.compareAndSet(false, true))
+            w.enqueue(room);
+    }
+
+    private Worker leastLoaded(Worker exclude) {
+        Worker best = null;
+        for (Worker w : workers) {
+            if (w == exclude)
+                continue;
+            if (best == null || w.loadNanos < best.loadNanos)
+                best = w;
+        }
+        return best;
+    }
+
+    final class Worker implements Runnable {
+        final int index;
+        volatile boolean running = true;
+        volatile Thread thread; // Di-set saat run() mulai, target unpark
+
+        // Room yang baru di-wake / dipindah dari worker lain
+        private final Queue<Room> inbox = new ConcurrentLinkedQueue<>();
+        // Jumlah room di inbox yang belum diambil worker (bisa sesaat negatif)
+        private final AtomicInteger pending = new AtomicInteger();
+
+        // Hanya disentuh oleh thread worker ini
+        private final List<Room> active = new ArrayList<>();
+        private int overruns = 0;
+
+        // Jumlah room yang ditempel ke worker ini (aktif + parked)
+        final AtomicInteger assigned = new AtomicInteger();
+
+        // Estimasi beban (nanos per tick, EWMA), dibaca worker lain saat balancing
+        private volatile long loadNanos = 0;
+
+        Worker(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public void run() {
+            thread = Thread.currentThread();
+            long nextTick = System.nanoTime();
+            while (running) {
+                drainInbox();
+                if (active.isEmpty()) {
+                    // Tidak ada yang perlu di-tick: tidur sampai enqueue() / shutdown()
+                    loadNanos = 0;
+                    overruns = 0;
+                    LockSupport.park(this);
+                    nextTick = System.nanoTime();
+                    continue;
+                }
+
+                long start = System.nanoTime();
+                for (int i = 0; i < active.size(); i++) {
+                    if (!tickAt(i))
+                        i--;
+                }
+                long elapsed = System.nanoTime() - start;
+                loadNanos = (loadNanos * 7 + elapsed) / 8;
+
+                if (elapsed > TICK_NANOS) {
+                    if (++overruns >= OVERRUN_LIMIT) {
+                        rebalance();
+                        overruns = 0;
+                    }
+                } else {
+                    overruns = 0;
+                }
+
+                nextTick += TICK_NANOS;
+                long now = System.nanoTime();
+                if (now - nextTick > TICK_NANOS * 5)
+                    nextTick = now; // Ketinggalan jauh: jangan kejar tick yang hilang
+
+                // Dibangunkan enqueue() sebelum waktunya: room baru langsung di-tick,
+                // room lain tetap di jadwalnya
+                long sleep;
+                while (running && (sleep = nextTick - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(this, sleep);
+                    int from = active.size();
+                    drainInbox();
+                    for (int i = from; i < active.size(); i++) {
+                        if (!tickAt(i))
+                            i--;
+                    }
+                }
+            }
+        }
+
+        /** Masukkan room ke inbox; bangunkan worker jika inbox sebelumnya kosong. */
+        void enqueue(Room room) {
+            inbox.add(room);
+            if (pending.getAndIncrement() == 0)
+                LockSupport.unpark(thread); // null (belum start) = no-op, run() tetap drain inbox dulu
+        }
+
+        private void drainInbox() {
+            Room r;
+            while ((r = inbox.poll()) != null) {
+                pending.decrementAndGet();
+                active.add(r);
+            }
+        }
+
+        /** Tick room ke-i. @return false jika room di-park (posisi i sekarang diisi room lain). */
+        private boolean tickAt(int i) {
+            Room room = active.get(i);
+            long t0 = System.nanoTime();
+            boolean keep = room.tick();
+            room.lastTickNanos = System.nanoTime() - t0;
+            if (!keep) {
+                removeAt(i);
+                park(room);
+            }
+            return keep;
+        }
+
+        private void removeAt(int i) {
+            int last = active.size() - 1;
+            active.set(i, active.get(last));
+            active.remove(last);
+        }
+
+        private void park(Room room) {
+            room.scheduled.set(false);
+            // Cegah race: aksi yang di-post saat kita sedang park harus tetap jalan
+            if (room.isRunning && room.hasPendingActions())
+                wake(room);
+        }
+
+        /** Pindahkan room termahal ke worker lain yang masih punya sisa budget. */
+        private void rebalance() {
+            if (active.size() < 2)
+                return;
+            int heaviest = 0;
+            for (int i = 1; i < active.size(); i++) {
+                if (active.get(i).lastTickNanos > active.get(heaviest).lastTickNanos)
+                    heaviest = i;
+            }
+            Room room = active.get(heaviest);
+            Worker target = leastLoaded(this);
+            if (target == null || target.loadNanos + room.lastTickNanos >= TICK_NANOS)
+                return;
+            removeAt(heaviest);
+            assigned.decrementAndGet();
+            target.assigned.incrementAndGet();
+            room.worker = target;
+            target.enqueue(room);
+            System.out.println("[SCHEDULER] Room " + room.name + " moved: worker " + index + " -> " + target.index);
+        }
+    }
+}
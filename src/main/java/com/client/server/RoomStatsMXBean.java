@@ -0,0 +1,22 @@
+package com.client.server;
+
+/**
+ * Angka satu room untuk JMX (com.client.server:type=Room,name=...). Persentil
+ * tick diambil dari ringkasan TickMetrics terakhir (~10 detik), 0 jika belum ada.
+ */
+public interface RoomStatsMXBean {
+
+    String getName();
+
+    int getClientCount();
+
+    boolean isGameStarted();
+
+    long getTickP50Micros();
+
+    long getTickP99Micros();
+
+    long getTickMaxMicros();
+
+    long getOverBudgetTicks();
+}
@@ -0,0 +1,76 @@
+package com.client.server;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import com.client.protocol.Opcode;
+
+/**
+ * Counter global server: pesan & byte keluar per jenis (opcode), dicatat saat
+ * pesan masuk OutboundQueue. LongAdder supaya tick banyak room dan thread
+ * socket tidak rebutan satu cache line.
+ *
+ * Dibaca berkala oleh reporter (lihat SimpleTestServer), yang mencetak selisih
+ * sejak laporan sebelumnya.
+ */
+final class ServerMetrics {
+
+    static final String[] TYPE_NAMES = {
+            "TEXT", "STATE", "BOMB_PLACED", "EXPLOSION", "BREAK_TILE", "SPAWN_ITEM", "ITEM_PICKED",
+            "PLAYER_DIED", "MAP", "MAP_UPDATE", "ARENA_WARNING", "STATE_DELTA", "BATCH", "MAP_DIFF"
+    };
+
+    private static final LongAdder[] MESSAGES = adders();
+    private static final LongAdder[] BYTES = adders();
+
+    // Nilai saat laporan terakhir (hanya thread reporter)
+    private static final long[] reportedMessages = new long[TYPE_NAMES.length];
+    private static final long[] reportedBytes = new long[TYPE_NAMES.length];
+
+    private ServerMetrics() {
+    }
+
+    private static LongAdder[] adders() {
+        LongAdder[] a = new LongAdder[TYPE_NAMES.length];
+        for (int i = 0; i < a.length; i++)
+            a[i] = new LongAdder();
+        return a;
+    }
+
+    static void recordSent(int opcode, int bytes) {
+        if (opcode < 0 || opcode >= TYPE_NAMES.length)
+            opcode = Opcode.TEXT;
+        MESSAGES[opcode].increment();
+        BYTES[opcode].add(bytes);
+    }
+
+    static long messagesSent(int opcode) {
+        return MESSAGES[opcode].sum();
+    }
+
+    static long bytesSent(int opcode) {
+        return BYTES[opcode].sum();
+    }
+
+    /** Ringkasan trafik sejak pemanggilan sebelumnya, null jika tidak ada yang terkirim. */
+    static String takeTrafficReport() {
+        StringBuilder sb = new StringBuilder();
+        long totalMessages = 0;
+        long totalBytes = 0;
+        for (int i = 0; i < TYPE_NAMES.length; i++) {
+            long messages = MESSAGES[i].sum();
+            long bytes = BYTES[i].sum();
+            long dm = messages - reportedMessages[i];
+            long db = bytes - reportedBytes[i];
+            reportedMessages[i] = messages;
+            reportedBytes[i] = bytes;
+            if (dm == 0)
+                continue;
+            totalMessages += dm;
+            totalBytes += db;
+            sb.append(' ').append(TYPE_NAMES[i]).append('=').append(dm).append('/').append(db).append('B');
+        }
+        if (totalMessages == 0)
+            return null;
+        return "messages=" + totalMessages + " bytes=" + totalBytes + " |" + sb;
+    }
+}
@@ -0,0 +1,43 @@
+package com.client.server;
+
+/**
+ * Opsi startup server, dari argumen command line.
+ * Contoh: java -jar Server.jar --port=5000 --io=nio --io-threads=2
+ *         java -jar Server.jar --io=blocking --threads=virtual
+ *         java -jar Server.jar --metrics-port=9100 --jmx
+ */
+final class ServerOptions {
+
+    enum IoMode { NIO, BLOCKING }
+
+    enum ThreadMode { PLATFORM, VIRTUAL }
+
+    int port = 5000;
+    IoMode ioMode = IoMode.NIO;
+    ThreadMode threadMode = ThreadMode.PLATFORM; // Hanya berlaku untuk --io=blocking
+    int ioThreads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+    int metricsPort = 0; // > 0: HTTP /metrics di loopback (lihat MetricsEndpoint)
+    boolean jmx = false;
+
+    static ServerOptions parse(String[] args) {
+        ServerOptions o = new ServerOptions();
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            String value = kv.length > 1 ? kv[1] : "";
+            try {
+                switch (kv[0]) {
+                    case "--port" -> o.port = Integer.parseInt(value);
+                    case "--io" -> o.ioMode = IoMode.valueOf(value.toUpperCase());
+                    case "--io-threads" -> o.ioThreads = Math.max(1, Integer.parseInt(value));
+                    case "--threads" -> o.threadMode = ThreadMode.valueOf(value.toUpperCase());
+                    case "--metrics-port" -> o.metricsPort = Integer.parseInt(value);
+                    case "--jmx" -> o.jmx = true;
+                    default -> System.err.println("Unknown option: " + arg);
+                }
+            } catch (IllegalArgumentException e) {
+                System.err.println("Invalid option: " + arg);
+            }
+        }
+        return o;
+    }
+}
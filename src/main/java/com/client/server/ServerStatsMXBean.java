@@ -0,0 +1,29 @@
+package com.client.server;
+
+/**
+ * Angka level server untuk JMX (com.client.server:type=Server). Nilainya sama
+ * dengan bagian global dari endpoint HTTP /metrics (lihat MetricsEndpoint).
+ */
+public interface ServerStatsMXBean {
+
+    int getRoomCount();
+
+    int getLobbySize();
+
+    int getConnectionCount();
+
+    long getMessagesSent();
+
+    long getBytesSent();
+
+    long getDroppedInputs();
+
+    int getMaxOutboundQueueDepth();
+
+    /** Total byte yang dialokasikan thread yang masih hidup (perkiraan, -1 jika JVM tidak mendukung). */
+    long getAllocatedBytes();
+
+    long getGcCount();
+
+    long getGcTimeMillis();
+}
@@ -0,0 +1,53 @@
+package com.client.server;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pabrik thread untuk koneksi blocking (reader + writer per client).
+ * Mode VIRTUAL memakai virtual thread (Java 21+) lewat reflection, karena
+ * project masih di-compile dengan release 17. Di JVM lama otomatis balik
+ * ke platform thread biasa.
+ */
+final class ServerThreads {
+
+    private ServerThreads() {
+    }
+
+    static ThreadFactory create(ServerOptions.ThreadMode mode, String prefix) {
+        if (mode == ServerOptions.ThreadMode.VIRTUAL) {
+            ThreadFactory virtual = virtualThreads(prefix);
+            if (virtual != null)
+                return virtual;
+            System.out.println("[THREADS] Virtual threads not supported by this JVM ("
+                    + System.getProperty("java.version") + "), using platform threads");
+        }
+        return platformThreads(prefix);
+    }
+
+    static ThreadFactory platformThreads(String prefix) {
+        AtomicLong counter = new AtomicLong();
+        return r -> {
+            Thread t = new Thread(r, prefix + counter.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    /** @return factory virtual thread, atau null jika JVM tidak mendukung. */
+    static ThreadFactory virtualThreads(String prefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            // Panggil lewat interface publik Thread.Builder, bukan class implementasinya
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Method name = builderType.getMethod("name", String.class, long.class);
+            Method factory = builderType.getMethod("factory");
+            builder = name.invoke(builder, prefix, 0L);
+            return (ThreadFactory) factory.invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // NoSuchMethod (< Java 19) / UnsupportedOperation (preview belum aktif)
+            return null;
+        }
+    }
+}
@@ -1,44 +1,130 @@
 package com.client.server;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
-// [IMPORT BARU UNTUK EXECUTOR]
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.client.protocol.Opcode;
+import com.client.protocol.SnapshotRing;
+import com.client.protocol.Wire;
 
 public class SimpleTestServer {
 
-    private static final int PORT = 5000;
     private static final Map<String, Room> rooms = new ConcurrentHashMap<>();
     private static final List<ClientHandler> lobbyClients = new CopyOnWriteArrayList<>();
+    private static final RoomScheduler scheduler = new RoomScheduler(Runtime.getRuntime().availableProcessors());
 
     public static void main(String[] args) {
-        System.out.println("SERVER STARTED ON PORT " + PORT + " [MULTI-THREADED EXECUTOR MODE]");
+        ServerOptions options = ServerOptions.parse(args);
+        String threads = options.ioMode == ServerOptions.IoMode.BLOCKING ? ", THREADS: " + options.threadMode : "";
+        System.out.println("SERVER STARTED ON PORT " + options.port + " [SHARED ROOM SCHEDULER MODE, IO: "
+                + options.ioMode + threads + "]");
+        scheduler.start();
+        startMetricsReporter();
+
+        try {
+            MetricsEndpoint.start(options);
+            if (options.ioMode == ServerOptions.IoMode.NIO) {
+                new NioServer(options.port, options.ioThreads).run();
+            } else {
+                runBlocking(options);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
 
-        try (ServerSocket serverSocket = new ServerSocket(PORT)) {
+    // Mode blocking: reader + writer thread per koneksi (platform atau virtual)
+    private static void runBlocking(ServerOptions options) throws IOException {
+        ThreadFactory threads = ServerThreads.create(options.threadMode, "client-");
+        try (ServerSocket serverSocket = new ServerSocket(options.port)) {
             while (true) {
                 Socket clientSocket = serverSocket.accept();
-                ClientHandler client = new ClientHandler(clientSocket);
-                lobbyClients.add(client);
-                new Thread(client).start();
-                System.out.println("New Client connected: " + clientSocket.getInetAddress());
+                BlockingConnection conn = new BlockingConnection(clientSocket, threads);
+                conn.bind(accept(conn));
+                conn.start();
+            }
+        }
+    }
+
+    /** Daftarkan koneksi baru ke lobby. Dipanggil oleh transport (blocking / NIO). */
+    static ClientHandler accept(Connection conn) {
+        ClientHandler client = new ClientHandler(conn);
+        lobbyClients.add(client);
+        System.out.println("New Client connected: " + conn.getRemoteAddress());
+        return client;
+    }
+
+    // Untuk pembaca metrics (MetricsEndpoint); koleksi live, thread-safe
+    static Collection<Room> activeRooms() {
+        return rooms.values();
+    }
+
+    static List<ClientHandler> lobby() {
+        return lobbyClients;
+    }
+
+    // ===================== METRICS (TRAFIK & ANTRIAN OUTBOUND) =======================
+    // Durasi tick diringkas oleh masing-masing room (lihat TickMetrics)
+    private static final long METRICS_REPORT_MILLIS = 10_000;
+
+    private static void startMetricsReporter() {
+        Thread t = new Thread(() -> {
+            while (true) {
+                try {
+                    Thread.sleep(METRICS_REPORT_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                String traffic = ServerMetrics.takeTrafficReport();
+                if (traffic != null)
+                    System.out.println("[TRAFFIC] " + traffic);
+                reportOutboundQueues();
+            }
+        }, "server-metrics");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /** Depth antrian per client; yang normal (<= 1 pesan tertunda) cukup masuk ringkasan. */
+    static void reportOutboundQueues() {
+        int total = 0;
+        int maxPeak = 0;
+        long dropped = 0;
+        List<ClientHandler> all = new ArrayList<>(lobbyClients);
+        for (Room r : rooms.values())
+            all.addAll(r.clients);
+        for (ClientHandler c : all) {
+            OutboundQueue q = c.outboundQueue();
+            int peak = q.takePeakDepth();
+            int depth = q.depth();
+            total++;
+            maxPeak = Math.max(maxPeak, peak);
+            dropped += c.droppedInputs;
+            if (peak > 1 || depth > 0) {
+                System.out.println("[OUTBOUND] player " + c.playerId + " " + c.getRemoteAddress()
+                        + " depth=" + depth + " bytes=" + q.bytes() + " peak=" + peak
+                        + " conflated=" + q.conflatedCount());
             }
-        } catch (IOException e) {
-            e.printStackTrace();
         }
+        if (total > 0)
+            System.out.println("[OUTBOUND] clients=" + total + " maxPeakDepth=" + maxPeak
+                    + " droppedInputs=" + dropped);
     }
 
     public static void broadcastRoomList() {
@@ -51,45 +137,87 @@ public class SimpleTestServer {
                 sb.append(r.name).append(":").append(type).append(",");
             }
         }
-        String msg = sb.toString();
+        // Satu Packet untuk semua client lobby: encode sekali, byte[] dibagi
+        Packet packet = Packet.text(sb.toString());
         for (ClientHandler c : lobbyClients)
-            c.send(msg);
+            c.send(packet);
     }
 
-    // ===================== CLASS ROOM (EXECUTOR IMPLEMENTATION)
+    // ===================== CLASS ROOM (TICK DI WORKER RoomScheduler)
     // =======================
-    static class Room { // Hapus implements Runnable
+    static class Room {
         String name;
         String password = "";
         boolean isPrivate = false;
-        boolean gameStarted = false;
-        boolean isRunning = true;
+        volatile boolean gameStarted = false;
+        volatile boolean isRunning = true;
 
-        private double gameTime = 60.0;
+        private static final double DT = 0.016; // Fixed Time Step 16ms
+        static final double GAME_DURATION = 60.0;
+
+        private double gameTime = GAME_DURATION;
         private boolean isGameOver = false;
 
-        private double gameOverDelayTimer = -1;
+        private static final double GAME_OVER_DELAY = 2.0;
+        private static final int DEAD_VISIBLE_TICKS = ticksFor(1.5); // Mayat masih dikirim di STATE
         private String pendingGameOverMsg = "";
 
-        private long physicsTick = 0;
-        private long bombTick = 0;
-        private long broadcastTick = 0;
+        // Event berwaktu (sumbu bom, speed boost, arena, game over) dijadwalkan
+        // per tick di sini, bukan dikurangi DT tiap tick per entity
+        final TimerWheel timers = new TimerWheel();
+        private boolean bombsExploded = false;
+
+        private long tickCount = 0;
+        private final TickMetrics tickMetrics = new TickMetrics((long) (DT * 1_000_000_000L));
 
-        Set<Integer> rematchVotes = new HashSet<>();
+        // Snapshot STATE yang sudah dikirim, baseline delta untuk client biner
+        private static final int SNAPSHOT_HISTORY = 64; // ~1 detik
+        private static final int KEYFRAME_INTERVAL = 300; // Keyframe penuh tiap ~5 detik
+        private final SnapshotRing snapshotHistory = new SnapshotRing(SNAPSHOT_HISTORY);
+        private final Map<Integer, Packet> deltaCache = new HashMap<>();
+        private int snapshotSeq = 0;
 
-        // Thread-safe Lists
-        List<PlayerState> players = new CopyOnWriteArrayList<>();
+        // Waktu kirim per seq untuk RTT client (ACK). Ditulis worker, dibaca thread
+        // socket tanpa lock: cukup perkiraan untuk metrics
+        private final int[] sentSeq = new int[SNAPSHOT_HISTORY];
+        private final long[] sentNanos = new long[SNAPSHOT_HISTORY];
+
+        Set<Integer> rematchVotes = new HashSet<>(); // Dijaga monitor room (synchronized (room))
+
+        // Clients diakses dari thread socket (join/leave/broadcast), jadi tetap thread-safe
         List<ClientHandler> clients = new CopyOnWriteArrayList<>();
-        List<Bomb> bombs = new CopyOnWriteArrayList<>();
-        List<Item> items = new CopyOnWriteArrayList<>();
+
+        // State game HANYA disentuh oleh worker pemilik room (lihat post()), jadi list biasa
+        final PlayerTable players = new PlayerTable(); // Kolom per atribut, lihat PlayerTable
+        List<Bomb> bombs = new ArrayList<>();
+
+        // Aksi dari thread lain (input, place bomb, restart) diantrikan di sini
+        // lalu dijalankan berurutan di awal tick
+        private final Queue<Runnable> pendingActions = new ConcurrentLinkedQueue<>();
+
+        // Input gameplay (gerak, place bomb) lewat antrian khusus tanpa alokasi,
+        // dikuras setelah pendingActions dalam urutan datangnya
+        private static final int INPUT_QUEUE_CAPACITY = 1024;
+        private final InputQueue inputs = new InputQueue(INPUT_QUEUE_CAPACITY);
 
         ClientHandler host;
-        private int[][] mapData;
+        private TileMap tileMap;
+        private TileOccupancy occupancy; // Bom / item / player per tile (lihat TileOccupancy)
         private CollisionHandler collisionHandler;
         private Arena arena;
 
-        // [BARU] EXECUTOR SERVICE
-        private ScheduledExecutorService executor;
+        // Thread yang sedang menjalankan tick(); broadcast dari thread ini masuk
+        // tickEvents dan dikirim bersama STATE sebagai satu batch di akhir tick
+        private volatile Thread tickThread;
+        private final List<Packet> tickEvents = new ArrayList<>();
+
+        // Antrian ledakan berantai (lihat detonate), hanya dipakai di dalam tick
+        private final ArrayDeque<Bomb> chainQueue = new ArrayDeque<>();
+
+        // Dikelola RoomScheduler: worker pemilik room & apakah room ada di daftar aktifnya
+        volatile RoomScheduler.Worker worker;
+        final AtomicBoolean scheduled = new AtomicBoolean(false);
+        volatile long lastTickNanos = 0;
 
         public Room(String name, String password) {
             this.name = name;
@@ -101,183 +229,273 @@ public class SimpleTestServer {
 
         // --- METHOD UNTUK MENJALANKAN LOOP (PENGGANTI RUN) ---
         public void startGameLoop() {
-            if (executor != null && !executor.isShutdown())
-                return; // Sudah jalan
-
-            System.out.println("[ROOM " + name + "] Starting Executor Threads...");
-            executor = Executors.newScheduledThreadPool(3);
+            if (worker != null)
+                return; // Sudah terdaftar
+            scheduler.register(this);
+            MetricsEndpoint.registerRoom(this);
+            System.out.println("[ROOM " + name + "] Registered on room worker " + worker.index);
+        }
 
-            // Thread 1: Physics & Game Logic (Player Move, Win Condition, Arena)
-            executor.scheduleAtFixedRate(this::updatePhysics, 0, 16, TimeUnit.MILLISECONDS);
+        public void stopGameLoop() {
+            if (!isRunning)
+                return;
+            isRunning = false;
+            scheduler.unregister(this);
+            MetricsEndpoint.unregisterRoom(this);
+            System.out.println("[ROOM " + name + "] Stopped.");
+        }
 
-            // Thread 2: Bomb Logic (Tick, Explode)
-            executor.scheduleAtFixedRate(this::updateBombs, 0, 16, TimeUnit.MILLISECONDS);
+        /**
+         * Jadwalkan aksi untuk dijalankan di worker pemilik room (fase input).
+         * Semua mutasi state game dari luar WAJIB lewat sini (input gameplay
+         * lewat offerInput()).
+         */
+        public void post(Runnable action) {
+            pendingActions.add(action);
+            scheduler.wake(this); // Room yang sedang di-park ikut bangun
+        }
 
-            // Thread 3: Broadcast State (Send data to client)
-            executor.scheduleAtFixedRate(this::broadcastState, 0, 16, TimeUnit.MILLISECONDS);
+        /**
+         * Antrikan satu input (lihat InputQueue) dari thread mana pun.
+         * @return false jika antrian room penuh dan input dibuang
+         */
+        boolean offerInput(long input) {
+            if (!inputs.offer(input))
+                return false;
+            scheduler.wake(this);
+            return true;
         }
 
-        public void stopGameLoop() {
-            isRunning = false;
-            if (executor != null) {
-                System.out.println("[ROOM " + name + "] Shutting down Executor...");
-                executor.shutdown();
-                try {
-                    if (!executor.awaitTermination(800, TimeUnit.MILLISECONDS)) {
-                        executor.shutdownNow();
-                    }
-                } catch (InterruptedException e) {
-                    executor.shutdownNow();
-                }
-            }
+        boolean hasPendingActions() {
+            return !pendingActions.isEmpty() || !inputs.isEmpty();
         }
 
-        // --- TASK 1: UPDATE PHYSICS & GAME RULES ---
-        private void updatePhysics() {
-            long start = System.nanoTime();
-            physicsTick++;
-            if (!gameStarted || clients.isEmpty() || collisionHandler == null)
-                return;
+        /**
+         * Satu tick room, dipanggil oleh worker pemilik room.
+         * Pipeline: input -> move -> timers (bombs/arena) -> rules -> snapshot -> send.
+         *
+         * @return false jika room boleh di-park (belum main / kosong / sudah ditutup)
+         */
+        boolean tick() {
+            if (!isRunning)
+                return false;
+            tickMetrics.startTick();
+            tickCount++;
+            tickThread = Thread.currentThread();
+            boolean simulated = false; // Wake di lobby (park) tidak ikut metrics tick
+            try {
+                // 1. Input (aksi dari thread socket)
+                processPendingActions();
+
+                if (!gameStarted || clients.isEmpty() || collisionHandler == null)
+                    return false;
+                simulated = true;
+                tickMetrics.mark(TickMetrics.Phase.INPUT);
 
-            double dt = 0.016; // Fixed Time Step 16ms
+                // 2. Player Movement & Pickup
+                updateMovement();
+                tickMetrics.mark(TickMetrics.Phase.MOVE);
 
-            // 1. Game Over Delay Logic
-            if (isGameOver && gameOverDelayTimer > 0) {
-                gameOverDelayTimer -= dt;
-                if (gameOverDelayTimer <= 0) {
-                    broadcast(pendingGameOverMsg);
-                    gameOverDelayTimer = -1;
+                // 3. Timer (bomb & explosion, speed boost, arena, game over delay)
+                updateTimers();
+                tickMetrics.mark(TickMetrics.Phase.TIMERS);
+
+                // 4. Game Rules & Arena
+                updateRules();
+                tickMetrics.mark(TickMetrics.Phase.RULES);
+
+                // 5 & 6. Snapshot Encode + Send
+                broadcastSnapshot();
+                tickMetrics.mark(TickMetrics.Phase.SNAPSHOT);
+            } catch (Exception e) {
+                System.err.println("[ROOM " + name + "] Tick Error: " + e.getMessage());
+            } finally {
+                // Event yang belum ikut STATE (mis. tick tanpa snapshot) tetap dikirim.
+                // Semua pesan tick ini keluar dalam satu write per client
+                tickThread = null;
+                sendPendingEvents();
+                for (ClientHandler c : clients)
+                    c.flush();
+                if (simulated) {
+                    tickMetrics.mark(TickMetrics.Phase.FLUSH);
+                    // Ringkasan per ~10 detik, bukan satu baris per tick
+                    TickMetrics.Summary summary = tickMetrics.endTick();
+                    if (summary != null)
+                        System.out.println("[TICK] " + name + " " + summary);
                 }
             }
+            return isRunning;
+        }
 
-            // 2. Main Rules
-            if (!isGameOver) {
-                gameTime -= dt;
+        /** Umur snapshot seq sejak dikirim (untuk RTT), -1 jika sudah keluar dari history. */
+        long snapshotAge(int seq) {
+            int i = seq % SNAPSHOT_HISTORY;
+            long sent = sentNanos[i];
+            if (sentSeq[i] != seq || sent == 0)
+                return -1;
+            return System.nanoTime() - sent;
+        }
 
-                // Update Arena
-                if (arena != null)
-                    arena.update(dt, gameTime, players);
+        TickMetrics.Summary tickSummary() {
+            return tickMetrics.lastSummary();
+        }
 
-                long aliveCount = players.stream().filter(p -> !p.dead).count();
+        /** Game sudah selesai (GAME_OVER menunggu / sudah dikirim) sampai restartGame() berikutnya. */
+        boolean isGameOver() {
+            return isGameOver;
+        }
 
-                if (gameTime <= 0) {
-                    gameTime = 0;
-                    triggerGameOver("SURVIVORS");
-                } else if (gameStarted && players.size() > 1 && aliveCount <= 1) {
-                    triggerGameOver("WINNER");
+        private void processPendingActions() {
+            Runnable action;
+            while ((action = pendingActions.poll()) != null) {
+                try {
+                    action.run();
+                } catch (Exception e) {
+                    System.err.println("[ROOM " + name + "] Action Error: " + e.getMessage());
                 }
             }
+            long input;
+            while ((input = inputs.poll()) != InputQueue.EMPTY) {
+                int playerId = InputQueue.playerId(input);
+                if (InputQueue.kind(input) == InputQueue.KIND_PLACE_BOMB)
+                    placeBomb(playerId);
+                else
+                    applyInput(playerId, InputQueue.key(input), InputQueue.pressed(input));
+            }
+        }
 
-            // 3. Player Movement & Pickup
-            // Karena fixed step, multiplier selalu 1.0 (speed 100 px/detik * 0.016 = 1.6
-            // px/frame)
-            // Atau balikin ke logic sebelumnya: moveAmt = p.speed * dt
-
-            for (PlayerState p : players) {
-                if (p.dead) {
-                    p.deadTimer += dt;
+        private void updateMovement() {
+            // Karena fixed step, moveAmt = speed * dt (100 px/detik * 0.016 = 1.6 px/frame)
+            PlayerTable t = players;
+            for (int s = 0, n = t.size(); s < n; s++) {
+                if (t.dead[s])
                     continue;
-                }
-
-                if (p.speedTimer > 0) {
-                    p.speedTimer -= dt;
-                    if (p.speedTimer <= 0) {
-                        p.speed = p.DEFAULT_SPEED;
-                        p.speedTimer = 0;
-                    }
-                }
 
-                double moveAmt = p.speed * dt; // FIXED SPEED CALCULATION
+                double moveAmt = t.speed[s] * DT;
+                int in = t.input[s];
 
-                double nextX = p.x;
-                double nextY = p.y;
+                double nextX = t.x[s];
+                double nextY = t.y[s];
 
-                if (p.left)
+                if ((in & PlayerTable.LEFT) != 0)
                     nextX -= moveAmt;
-                if (p.right)
+                if ((in & PlayerTable.RIGHT) != 0)
                     nextX += moveAmt;
-                if (p.up)
+                if ((in & PlayerTable.UP) != 0)
                     nextY -= moveAmt;
-                if (p.down)
+                if ((in & PlayerTable.DOWN) != 0)
                     nextY += moveAmt;
 
-                boolean collideMapX = collisionHandler.checkCollision(nextX, p.y);
-                boolean collidePlayerX = collisionHandler.checkPlayerCollision(nextX, p.y, p, players);
+                boolean collideMapX = collisionHandler.checkCollision(nextX, t.y[s]);
+                boolean collidePlayerX = collisionHandler.checkPlayerCollision(nextX, t.y[s], s, t);
                 if (!collideMapX && !collidePlayerX)
-                    p.x = nextX;
+                    t.x[s] = nextX;
 
-                boolean collideMapY = collisionHandler.checkCollision(p.x, nextY);
-                boolean collidePlayerY = collisionHandler.checkPlayerCollision(p.x, nextY, p, players);
+                boolean collideMapY = collisionHandler.checkCollision(t.x[s], nextY);
+                boolean collidePlayerY = collisionHandler.checkPlayerCollision(t.x[s], nextY, s, t);
                 if (!collideMapY && !collidePlayerY)
-                    p.y = nextY;
+                    t.y[s] = nextY;
 
-                p.updateAnimLogic();
-                checkItemPickup(p);
+                occupancy.movePlayer(s, t.x[s], t.y[s]);
+                checkItemPickup(s);
             }
-            long end = System.nanoTime();
-            double elapsed = (end - start) / 1_000_000.0;
-            System.out.println("[Physics] Tick " + physicsTick + 
-                             " | Thread: " + Thread.currentThread().getName() + 
-                             " | Elapsed(ms): " + String.format("%.4f", elapsed));
+            t.updateAnimStates();
         }
 
-        // --- TASK 2: UPDATE BOMBS ---
-        private void updateBombs() {
-            long start = System.nanoTime();
-            bombTick++;
-            if (!gameStarted || isGameOver)
-                return;
-
-            double dt = 0.016;
-
-            // Loop thread-safe karena pakai CopyOnWriteArrayList
-            for (Bomb b : bombs) {
-                b.tick(dt);
+        private void updateTimers() {
+            // Hanya timer yang jatuh tempo di tick ini yang disentuh
+            timers.advance();
+            if (bombsExploded) {
+                bombs.removeIf(b -> b.exploded);
+                bombsExploded = false;
             }
-            bombs.removeIf(b -> b.exploded);
-            long end = System.nanoTime();
-            double elapsed = (end - start) / 1_000_000.0;
-            System.out.println("[Bomb]    Tick " + bombTick + 
-                             " | Thread: " + Thread.currentThread().getName() + 
-                             " | Elapsed(ms): " + String.format("%.4f", elapsed));
         }
 
-        // --- TASK 3: BROADCAST STATE ---
-        private void broadcastState() {
-            long start = System.nanoTime();
-            broadcastTick++;
-            if (!gameStarted || clients.isEmpty())
-                return;
+        /** Konversi detik ke jumlah tick fixed step (dibulatkan ke atas). */
+        static int ticksFor(double seconds) {
+            return (int) Math.ceil(seconds / DT - 1e-9);
+        }
 
-            try {
-                StringBuilder sb = new StringBuilder("STATE;");
-                sb.append((int) Math.ceil(gameTime)).append(";");
+        private void updateRules() {
+            if (!isGameOver) {
+                gameTime -= DT;
 
-                for (int i = 0; i < players.size(); i++) {
-                    PlayerState p = players.get(i);
-                    // Filter: Jika mati > 1.5s jangan kirim
-                    if (p.dead && p.deadTimer > 1.5)
-                        continue;
+                int aliveCount = players.aliveCount();
 
-                    sb.append(p.id).append(",")
-                            .append((int) p.x).append(",")
-                            .append((int) p.y).append(",")
-                            .append(p.currentState).append(",")
-                            .append(p.currentDir);
-                    if (i < players.size() - 1)
-                        sb.append("#");
+                if (gameTime <= 0) {
+                    gameTime = 0;
+                    triggerGameOver("SURVIVORS");
+                } else if (players.size() > 1 && aliveCount <= 1) {
+                    triggerGameOver("WINNER");
                 }
-                sb.append("|||");
-                broadcast(sb.toString());
+            }
+        }
 
-            } catch (Exception e) {
-                System.err.println("Broadcast Error: " + e.getMessage());
+        private void broadcastSnapshot() {
+            PlayerTable t = players;
+            int[] data = new int[t.size() * SnapshotRing.STRIDE];
+            int count = 0;
+            for (int s = 0, n = t.size(); s < n; s++) {
+                // Filter: Jika mati > 1.5s jangan kirim
+                if (t.dead[s] && timers.now() - t.diedAtTick[s] > DEAD_VISIBLE_TICKS)
+                    continue;
+                int o = count * SnapshotRing.STRIDE;
+                data[o] = t.id[s];
+                data[o + 1] = (int) t.x[s];
+                data[o + 2] = (int) t.y[s];
+                data[o + 3] = t.state[s];
+                data[o + 4] = t.dir[s];
+                count++;
             }
-            long end = System.nanoTime();
-            double elapsed = (end - start) / 1_000_000.0;
-            System.out.println("[Network] Tick " + broadcastTick + 
-                             " | Thread: " + Thread.currentThread().getName() + 
-                             " | Elapsed(ms): " + String.format("%.4f", elapsed));
+            int time = (int) Math.ceil(gameTime);
+            int seq = snapshotSeq = (snapshotSeq + 1) & SnapshotRing.SEQ_MASK;
+            snapshotHistory.store(seq, data, count);
+            sentNanos[seq % SNAPSHOT_HISTORY] = System.nanoTime();
+            sentSeq[seq % SNAPSHOT_HISTORY] = seq;
+
+            // Client teks & client tanpa baseline valid dapat keyframe; sisanya delta
+            // terhadap snapshot terakhir yang mereka ACK (satu encode per baseline)
+            Packet keyframe = Packet.state(seq, time, data, count);
+            boolean forceKeyframe = tickCount % KEYFRAME_INTERVAL == 0;
+            deltaCache.clear();
+            Packet batchHeader = tickEvents.isEmpty() ? null : Packet.batch(tickEvents.size() + 1);
+            Packet fullMap = null;
+            for (ClientHandler c : clients) {
+                int base = c.ackedSeq;
+                Packet state;
+                if (!c.isBinary() || forceKeyframe || c.resyncRequested || !snapshotHistory.contains(base)) {
+                    if (c.resyncRequested) {
+                        // RESYNC juga mengirim ulang map penuh (sebelum batch tick ini)
+                        c.resyncRequested = false;
+                        if (fullMap == null)
+                            fullMap = Packet.map("MAP", Opcode.MAP, tileMap.grid());
+                        c.queue(fullMap);
+                    }
+                    state = keyframe;
+                } else {
+                    state = deltaCache.get(base);
+                    if (state == null) {
+                        state = Packet.stateDelta(seq, base, time, snapshotHistory.rows(base),
+                                snapshotHistory.count(base), data, count);
+                        deltaCache.put(base, state);
+                    }
+                }
+                if (batchHeader != null)
+                    c.queueBatch(batchHeader, tickEvents, state);
+                else
+                    c.queue(state);
+            }
+            tickEvents.clear();
+        }
+
+        /** Kirim event tick ini yang belum ikut snapshot (header + event, tanpa STATE). */
+        private void sendPendingEvents() {
+            if (tickEvents.isEmpty())
+                return;
+            Packet batchHeader = tickEvents.size() > 1 ? Packet.batch(tickEvents.size()) : null;
+            for (ClientHandler c : clients)
+                c.queueBatch(batchHeader, tickEvents, null);
+            tickEvents.clear();
         }
 
         // --- SISA METHOD ROOM (LOGIC TIDAK BERUBAH) ---
@@ -311,7 +529,7 @@ public class SimpleTestServer {
             int id = clients.size() - 1;
             client.playerId = id;
             double[] pos = getSpawnPosition(id);
-            players.add(new PlayerState(id, pos[0], pos[1]));
+            post(() -> addPlayerState(id, pos[0], pos[1]));
             if (clients.size() == 1)
                 host = client;
             broadcastRoomInfo();
@@ -326,8 +544,8 @@ public class SimpleTestServer {
                 System.out.println("[ROOM " + name + "] Host migrated to ID " + host.playerId);
             }
             if (clients.isEmpty()) {
-                System.out.println("[ROOM " + name + "] Empty. Stopping Executor...");
-                stopGameLoop(); // STOP EXECUTOR
+                System.out.println("[ROOM " + name + "] Empty. Stopping...");
+                stopGameLoop();
                 rooms.remove(name);
                 SimpleTestServer.broadcastRoomList();
             } else {
@@ -335,36 +553,80 @@ public class SimpleTestServer {
             }
         }
 
-        public synchronized void restartGame() {
+        // Dipanggil lewat post(), jadi selalu jalan di worker milik room
+        public void restartGame() {
             System.out.println("[ROOM " + name + "] RESTARTING...");
-            this.gameTime = 60.0;
+            this.gameTime = GAME_DURATION;
             this.isGameOver = false;
-            this.gameOverDelayTimer = -1;
             this.pendingGameOverMsg = "";
+            this.timers.clear(); // Sumbu bom, speed boost & tahap arena game sebelumnya
             this.gameStarted = true;
 
-            this.rematchVotes.clear();
+            // Vote & removePlayer mengubah rematchVotes dari thread socket di bawah monitor room
+            synchronized (this) {
+                this.rematchVotes.clear();
+            }
             this.bombs.clear();
-            this.items.clear();
             this.players.clear();
 
             initGameMap();
 
+            // Client membuang baseline-nya saat RESET_GAME_STATE: snapshot pertama
+            // setelah restart harus keyframe (history kosong juga menolak ACK lama
+            // yang baru datang setelah ini)
+            snapshotHistory.clear();
             for (ClientHandler c : clients) {
+                c.ackedSeq = -1;
                 double[] pos = getSpawnPosition(c.playerId);
-                this.players.add(new PlayerState(c.playerId, pos[0], pos[1]));
+                addPlayerState(c.playerId, pos[0], pos[1]);
             }
 
             broadcast("RESET_GAME_STATE");
             broadcast("GAME_STARTED");
-            String mapStr = getMapString();
-            broadcast("MAP;13;13;" + mapStr);
+            broadcast(Packet.map("MAP", Opcode.MAP, tileMap.grid()));
             broadcastRoomInfo();
         }
 
-        // ... (broadcastRoomInfo, broadcast, triggerGameOver, checkItemPickup,
-        // breakTile, isSolidTile, isBreakableTile, initGameMap, getMapString)
-        // ... (SAMA PERSIS DENGAN KODE SEBELUMNYA, TIDAK PERLU DIUBAH) ...
+        private void addPlayerState(int playerId, double x, double y) {
+            int s = players.add(playerId, x, y);
+            if (occupancy != null) // Sebelum game pertama belum ada map
+                occupancy.addPlayer(s, x, y);
+        }
+
+        /** @param key bit input PlayerTable (UP / DOWN / LEFT / RIGHT) */
+        public void applyInput(int playerId, int key, boolean pressed) {
+            int s = players.slotOf(playerId);
+            if (s >= 0)
+                players.setInput(s, key, pressed);
+        }
+
+        public void placeBomb(int playerId) {
+            int s = players.slotOf(playerId);
+            if (s < 0)
+                return;
+            PlayerTable p = players;
+            int currentCapacity = PlayerTable.DEFAULT_MAX_BOMBS + p.bonusBombStock[s];
+            if (p.activeBombs[s] >= currentCapacity || p.dead[s])
+                return;
+            int tx = TileOccupancy.tileOf(p.x[s]);
+            int ty = TileOccupancy.tileOf(p.y[s]);
+            if (isSolidTile(tx, ty) || tileMap.hasBomb(tx, ty))
+                return;
+            int range = PlayerTable.DEFAULT_RANGE;
+            if (p.firePowerUp[s]) {
+                range += 1;
+                p.firePowerUp[s] = false;
+            }
+            Bomb bomb = new Bomb(tx, ty, playerId, range, this);
+            bomb.arm(timers);
+            bombs.add(bomb);
+            occupancy.setBomb(tx, ty, bomb);
+            tileMap.setBomb(tx, ty, true);
+            p.activeBombs[s]++;
+            if (p.activeBombs[s] > PlayerTable.DEFAULT_MAX_BOMBS && p.bonusBombStock[s] > 0)
+                p.bonusBombStock[s]--;
+            broadcast(Packet.bombPlaced(tx, ty, playerId));
+        }
 
         public void broadcastRoomInfo() {
             StringBuilder sb = new StringBuilder("ROOM_UPDATE;");
@@ -376,20 +638,30 @@ public class SimpleTestServer {
         }
 
         public void broadcast(String msg) {
+            broadcast(Packet.text(msg));
+        }
+
+        public void broadcast(Packet packet) {
+            if (Thread.currentThread() == tickThread) {
+                tickEvents.add(packet); // Dikirim di akhir tick (lihat broadcastSnapshot)
+                return;
+            }
             for (ClientHandler c : clients)
-                c.send(msg);
+                c.send(packet);
         }
 
         private void triggerGameOver(String type) {
             isGameOver = true;
-            gameOverDelayTimer = 2.0;
+            // Bom & arena berhenti; yang tersisa hanya pengumuman hasil setelah delay
+            timers.clear();
+            timers.schedule(ticksFor(GAME_OVER_DELAY), () -> broadcast(pendingGameOverMsg));
             if (type.equals("SURVIVORS")) {
                 StringBuilder survivors = new StringBuilder();
-                for (PlayerState p : players) {
-                    if (!p.dead) {
+                for (int s = 0; s < players.size(); s++) {
+                    if (!players.dead[s]) {
                         if (survivors.length() > 0)
                             survivors.append(",");
-                        survivors.append(p.id);
+                        survivors.append(players.id[s]);
                     }
                 }
                 if (survivors.length() > 0)
@@ -398,9 +670,9 @@ public class SimpleTestServer {
                     pendingGameOverMsg = "GAME_OVER;DRAW";
             } else if (type.equals("WINNER")) {
                 int winnerId = -1;
-                for (PlayerState p : players) {
-                    if (!p.dead) {
-                        winnerId = p.id;
+                for (int s = 0; s < players.size(); s++) {
+                    if (!players.dead[s]) {
+                        winnerId = players.id[s];
                         break;
                     }
                 }
@@ -411,32 +683,28 @@ public class SimpleTestServer {
             }
         }
 
-        private void checkItemPickup(PlayerState p) {
-            int tileSize = 32;
-            int pGridX = (int) ((p.x + tileSize / 2) / tileSize);
-            int pGridY = (int) ((p.y + tileSize / 2) / tileSize);
-            for (Item item : items) {
-                if (item.x == pGridX && item.y == pGridY) {
-                    switch (item.type) {
-                        case BOMB_UP -> p.bonusBombStock++;
-                        case FIRE_UP -> p.hasFirePowerUp = true;
-                        case SPEED_UP -> {
-                            if (p.speedTimer <= 0) {
-                                p.speed = 5.0;
-                                p.speedTimer = 5.0;
-                            }
-                        }
+        private void checkItemPickup(int s) {
+            PlayerTable p = players;
+            Item item = occupancy.itemAt(TileOccupancy.tileOf(p.x[s]), TileOccupancy.tileOf(p.y[s]));
+            if (item == null)
+                return;
+            switch (item.type) {
+                case BOMB_UP -> p.bonusBombStock[s]++;
+                case FIRE_UP -> p.firePowerUp[s] = true;
+                case SPEED_UP -> {
+                    if (p.speedExpiry[s] == null || !p.speedExpiry[s].isPending()) {
+                        p.speed[s] = 5.0;
+                        p.speedExpiry[s] = timers.schedule(ticksFor(5.0), () -> p.speed[s] = PlayerTable.DEFAULT_SPEED);
                     }
-                    items.remove(item);
-                    broadcast("ITEM_PICKED;" + p.id + "," + item.x + "," + item.y + "," + item.type.name());
-                    return;
                 }
             }
+            occupancy.setItem(item.x, item.y, null);
+            broadcast(Packet.itemPicked(p.id[s], item.x, item.y, item.type.name()));
         }
 
         public void breakTile(int tx, int ty) {
-            mapData[tx][ty] = 0;
-            broadcast("BREAK_TILE;" + tx + "," + ty);
+            tileMap.setTile(tx, ty, TileMap.FLOOR);
+            broadcast(Packet.breakTile(tx, ty));
             Random random = new Random();
             if (random.nextDouble() < 0.3) {
                 double r = random.nextDouble();
@@ -447,40 +715,66 @@ public class SimpleTestServer {
                     type = Item.ItemType.FIRE_UP;
                 else
                     type = Item.ItemType.SPEED_UP;
-                items.add(new Item(tx, ty, type));
-                broadcast("SPAWN_ITEM;" + tx + "," + ty + "," + type);
+                Item item = new Item(tx, ty, type);
+                occupancy.setItem(tx, ty, item);
+                broadcast(Packet.spawnItem(tx, ty, type.name()));
             }
         }
 
         public boolean isSolidTile(int tx, int ty) {
-            if (tx < 0 || ty < 0 || tx >= mapData.length || ty >= mapData[0].length)
-                return true;
-            return mapData[tx][ty] == 1;
+            return tileMap.isWall(tx, ty);
         }
 
         public boolean isBreakableTile(int tx, int ty) {
-            if (tx < 0 || ty < 0 || tx >= mapData.length || ty >= mapData[0].length)
-                return false;
-            return mapData[tx][ty] == 2;
+            return tileMap.isBreakable(tx, ty);
+        }
+
+        void killPlayer(int s) {
+            players.dead[s] = true;
+            players.diedAtTick[s] = timers.now();
+            players.state[s] = PlayerTable.STATE_DEAD;
+            broadcast(Packet.playerDied(players.id[s]));
+        }
+
+        Bomb bombAt(int tx, int ty) {
+            Bomb b = occupancy.bombAt(tx, ty);
+            return b != null && !b.exploded ? b : null;
+        }
+
+        /**
+         * Ledakkan bom beserta semua bom yang terkena apinya (chain reaction) di tick ini.
+         * Antrian FIFO: bom meledak berurutan sesuai jarak rantainya dari bom pertama.
+         */
+        void detonate(Bomb first) {
+            if (first.exploded)
+                return;
+            first.exploded = true;
+            bombsExploded = true;
+            chainQueue.add(first);
+            Bomb b;
+            while ((b = chainQueue.poll()) != null)
+                b.explode(chainQueue);
         }
 
         public void initGameMap() {
-            this.mapData = MapGenerator.generateMapArray(13, 13);
-            this.collisionHandler = new CollisionHandler(this.mapData, 32, this.bombs);
-            this.arena = new Arena(this.mapData, this);
+            this.tileMap = new TileMap(MapGenerator.generateMapArray(13, 13));
+            this.occupancy = new TileOccupancy(this.tileMap.getCols(), this.tileMap.getRows());
+            this.collisionHandler = new CollisionHandler(this.tileMap, 32);
+            this.arena = new Arena(this.tileMap, this);
+            this.arena.start();
         }
 
         public String getMapString() {
-            return MapGenerator.convertToString(this.mapData);
+            return MapGenerator.convertToString(this.tileMap.grid());
         }
     }
 
-    // ===================== CLASS HELPER (Arena, Bomb, Item, Collision, Map,
-    // Player) =======================
+    // ===================== CLASS HELPER (Arena, Bomb, Item, Collision, Map)
+    // =======================
     // --- SAMA PERSIS DENGAN SEBELUMNYA, TIDAK DIUBAH ---
 
     static class Arena {
-        private final int[][] map;
+        private final TileMap map;
         private final int mapCols;
         private final int mapRows;
         private final Room room;
@@ -491,52 +785,49 @@ public class SimpleTestServer {
         private final double[] shrinkTimes = { 30.0, 20.0, 10.0, 5.0, 2.0 };
         private final String[] shrinkPattern = { "LR", "TB", "LR", "TB", "LR" };
         private int currentStep = 0;
-        private boolean isShrinking = false;
-        private double shrinkAnimTimer = 0;
+        private long startTick;
         private static final double SHRINK_WARNING_DURATION = 5.0;
 
-        public Arena(int[][] map, Room room) {
+        public Arena(TileMap map, Room room) {
             this.map = map;
             this.room = room;
-            this.mapCols = map.length;
-            this.mapRows = map[0].length;
+            this.mapCols = map.getCols();
+            this.mapRows = map.getRows();
             this.right = mapCols - 2;
             this.bottom = mapRows - 2;
         }
 
-        public void update(double dt, double gameTime, List<PlayerState> players) {
-            if (!isShrinking && currentStep < shrinkTimes.length) {
-                if (gameTime <= shrinkTimes[currentStep])
-                    startShrinkSequence();
-            }
-            if (isShrinking) {
-                shrinkAnimTimer += dt;
-                if (shrinkAnimTimer < dt * 2) {
-                    String pattern = shrinkPattern[currentStep];
-                    room.broadcast("ARENA_WARNING;" + pattern + ";" + left + ";" + right + ";" + top + ";" + bottom);
-                }
-                if (shrinkAnimTimer >= SHRINK_WARNING_DURATION) {
-                    executeShrink(players);
-                    isShrinking = false;
-                }
-            }
+        /** Jadwalkan tahap pertama; dipanggil saat game dimulai. */
+        void start() {
+            startTick = room.timers.now();
+            scheduleNextWarning();
+        }
+
+        // Warning tahap berikut mulai saat sisa waktu <= shrinkTimes[step], tapi
+        // tidak sebelum tahap sebelumnya selesai dieksekusi
+        private void scheduleNextWarning() {
+            if (currentStep >= shrinkTimes.length)
+                return;
+            long at = startTick + Room.ticksFor(Room.GAME_DURATION - shrinkTimes[currentStep]);
+            room.timers.schedule(at - room.timers.now(), this::startShrinkSequence);
         }
 
         private void startShrinkSequence() {
-            isShrinking = true;
-            shrinkAnimTimer = 0;
             System.out.println("[ARENA] Shrinking Warning Started! Step: " + currentStep);
+            room.broadcast(Packet.arenaWarning(shrinkPattern[currentStep], left, right, top, bottom));
+            room.timers.schedule(Room.ticksFor(SHRINK_WARNING_DURATION), this::executeShrink);
         }
 
-        private void executeShrink(List<PlayerState> players) {
+        private void executeShrink() {
             if (currentStep >= shrinkPattern.length)
                 return;
             String step = shrinkPattern[currentStep];
-            for (PlayerState p : players) {
-                if (p.dead)
+            PlayerTable players = room.players;
+            for (int s = 0; s < players.size(); s++) {
+                if (players.dead[s])
                     continue;
-                int px = (int) ((p.x + 16) / 32);
-                int py = (int) ((p.y + 16) / 32);
+                int px = TileOccupancy.tileOf(players.x[s]);
+                int py = TileOccupancy.tileOf(players.y[s]);
                 boolean kill = false;
                 if (step.equals("LR")) {
                     if (px <= left || px >= right)
@@ -545,40 +836,43 @@ public class SimpleTestServer {
                     if (py <= top || py >= bottom)
                         kill = true;
                 }
-                if (kill) {
-                    p.dead = true;
-                    p.currentState = "DEAD";
-                    room.broadcast("PLAYER_DIED;" + p.id);
-                }
+                if (kill)
+                    room.killPlayer(s);
             }
+            // Dua kolom (LR) atau dua baris (TB) jadi tembok: kirim sebagai 2 span, bukan map penuh
+            int[] spans;
             if (step.equals("LR")) {
                 for (int y = 0; y < mapRows; y++) {
-                    map[left][y] = 1;
-                    map[right][y] = 1;
+                    map.setTile(left, y, TileMap.WALL);
+                    map.setTile(right, y, TileMap.WALL);
                 }
+                spans = new int[] { left, 0, 1, mapRows, 1, right, 0, 1, mapRows, 1 };
                 left++;
                 right--;
             } else {
                 for (int x = 0; x < mapCols; x++) {
-                    map[x][top] = 1;
-                    map[x][bottom] = 1;
+                    map.setTile(x, top, TileMap.WALL);
+                    map.setTile(x, bottom, TileMap.WALL);
                 }
+                spans = new int[] { 0, top, 0, mapCols, 1, 0, bottom, 0, mapCols, 1 };
                 top++;
                 bottom--;
             }
             currentStep++;
-            String mapStr = MapGenerator.convertToString(map);
-            room.broadcast("MAP_UPDATE;" + mapCols + ";" + mapRows + ";" + mapStr);
+            room.broadcast(Packet.mapDiff(spans, 2));
+            scheduleNextWarning();
         }
     }
 
     static class Bomb {
         int x, y, ownerId, range;
-        double timer = 2.0;
         boolean exploded = false;
         boolean isSolid = false;
-        double solidDelay = 0.5;
         Room room;
+        private static final int FUSE_TICKS = Room.ticksFor(2.0);
+        private static final int SOLID_DELAY_TICKS = Room.ticksFor(0.5);
+        private TimerWheel.Timer fuse;
+        private TimerWheel.Timer solidTimer;
 
         public Bomb(int x, int y, int ownerId, int range, Room room) {
             this.x = x;
@@ -588,67 +882,77 @@ public class SimpleTestServer {
             this.room = room;
         }
 
-        public void tick(double dt) {
-            if (exploded)
-                return;
-            if (solidDelay > 0) {
-                solidDelay -= dt;
-                if (solidDelay <= 0) {
-                    isSolid = true;
-                    solidDelay = 0;
-                }
-            }
-            timer -= dt;
-            if (timer <= 0)
-                explode();
+        /** Jadwalkan bom jadi solid & meledak; sekali saat diletakkan. */
+        void arm(TimerWheel timers) {
+            solidTimer = timers.schedule(SOLID_DELAY_TICKS, this::becomeSolid);
+            fuse = timers.schedule(FUSE_TICKS, () -> room.detonate(this));
         }
 
-        private void explode() {
+        private void becomeSolid() {
+            isSolid = true;
+            room.tileMap.setSolidBomb(x, y, true);
+        }
+
+        /** Dipanggil Room.detonate(); bom lain yang terkena api masuk ke chain. */
+        void explode(Queue<Bomb> chain) {
             exploded = true;
-            List<String> parts = new ArrayList<>();
-            parts.add(x + "," + y + ",false");
+            // Meledak lebih awal karena chain: timer sumbu / solid tidak boleh jalan lagi
+            room.timers.cancel(fuse);
+            room.timers.cancel(solidTimer);
+            room.tileMap.setBomb(x, y, false);
+            room.occupancy.setBomb(x, y, null);
+            // Triple (x, y, vertical) per tile api; pusat + 4 arah x (range - 1)
+            int[] parts = new int[(1 + 4 * Math.max(0, range - 1)) * 3];
+            int count = addPart(parts, 0, x, y, false);
             checkPlayerHit(x, y);
-            calculateRay(1, 0, parts);
-            calculateRay(-1, 0, parts);
-            calculateRay(0, 1, parts);
-            calculateRay(0, -1, parts);
-            StringBuilder sb = new StringBuilder("EXPLOSION;").append(x).append(",").append(y);
-            for (String p : parts)
-                sb.append(";").append(p);
-            room.broadcast(sb.toString());
-            for (PlayerState p : room.players) {
-                if (p.id == ownerId) {
-                    p.activeBombs = Math.max(0, p.activeBombs - 1);
-                    break;
-                }
-            }
+            count = calculateRay(1, 0, parts, count, chain);
+            count = calculateRay(-1, 0, parts, count, chain);
+            count = calculateRay(0, 1, parts, count, chain);
+            count = calculateRay(0, -1, parts, count, chain);
+            room.broadcast(Packet.explosion(x, y, parts, count));
+            int owner = room.players.slotOf(ownerId);
+            if (owner >= 0)
+                room.players.activeBombs[owner] = Math.max(0, room.players.activeBombs[owner] - 1);
         }
 
         private void checkPlayerHit(int tx, int ty) {
-            for (PlayerState p : room.players) {
-                int px = (int) ((p.x + 16) / 32);
-                int py = (int) ((p.y + 16) / 32);
-                if (px == tx && py == ty && !p.dead) {
-                    p.dead = true;
-                    p.currentState = "DEAD";
-                    room.broadcast("PLAYER_DIED;" + p.id);
-                }
+            TileOccupancy occupancy = room.occupancy;
+            for (int s = occupancy.firstPlayer(tx, ty); s >= 0; s = occupancy.nextPlayer(s)) {
+                if (!room.players.dead[s])
+                    room.killPlayer(s);
             }
         }
 
-        private void calculateRay(int dx, int dy, List<String> parts) {
-            for (int i = 1; i < range; i++) {
+        private int calculateRay(int dx, int dy, int[] parts, int count, Queue<Bomb> chain) {
+            // Panjang ray dari bitset; tile terakhir bisa tembok breakable / bom lain
+            int length = room.tileMap.rayLength(x, y, dx, dy, range - 1);
+            for (int i = 1; i <= length; i++) {
                 int tx = x + (dx * i);
                 int ty = y + (dy * i);
-                if (room.isSolidTile(tx, ty))
-                    break;
-                parts.add(tx + "," + ty + "," + (dy != 0));
+                count = addPart(parts, count, tx, ty, dy != 0);
                 checkPlayerHit(tx, ty);
+            }
+            if (length > 0) {
+                int tx = x + dx * length;
+                int ty = y + dy * length;
                 if (room.isBreakableTile(tx, ty)) {
                     room.breakTile(tx, ty);
-                    break;
+                } else if (room.tileMap.hasBomb(tx, ty)) {
+                    Bomb next = room.bombAt(tx, ty);
+                    if (next != null) {
+                        next.exploded = true; // Cegah masuk antrian dua kali
+                        chain.add(next);
+                    }
                 }
             }
+            return count;
+        }
+
+        private static int addPart(int[] parts, int count, int tx, int ty, boolean vertical) {
+            parts[count * 3] = tx;
+            parts[count * 3 + 1] = ty;
+            parts[count * 3 + 2] = vertical ? 1 : 0;
+            return count + 1;
         }
     }
 
@@ -668,16 +972,14 @@ public class SimpleTestServer {
     }
 
     static class CollisionHandler {
-        private final int[][] map;
+        private final TileMap map;
         private final int tileSize;
         public final double hitboxSize = 25.5;
         public final double offset;
-        private final List<Bomb> bombs;
 
-        public CollisionHandler(int[][] map, int tileSize, List<Bomb> bombs) {
+        public CollisionHandler(TileMap map, int tileSize) {
             this.map = map;
             this.tileSize = tileSize;
-            this.bombs = bombs;
             this.offset = (tileSize - hitboxSize) / 2.0;
         }
 
@@ -689,16 +991,16 @@ public class SimpleTestServer {
             return isSolid(left, top) || isSolid(right, top) || isSolid(left, bottom) || isSolid(right, bottom);
         }
 
-        public boolean checkPlayerCollision(double newX, double newY, PlayerState self, List<PlayerState> allPlayers) {
+        public boolean checkPlayerCollision(double newX, double newY, int self, PlayerTable players) {
             double selfL = newX + offset;
             double selfT = newY + offset;
             double selfR = selfL + hitboxSize;
             double selfB = selfT + hitboxSize;
-            for (PlayerState other : allPlayers) {
-                if (other == self || other.dead)
+            for (int other = 0, n = players.size(); other < n; other++) {
+                if (other == self || players.dead[other])
                     continue;
-                double otherL = other.x + offset;
-                double otherT = other.y + offset;
+                double otherL = players.x[other] + offset;
+                double otherT = players.y[other] + offset;
                 double otherR = otherL + hitboxSize;
                 double otherB = otherT + hitboxSize;
                 if (selfL < otherR && selfR > otherL && selfT < otherB && selfB > otherT)
@@ -708,20 +1010,8 @@ public class SimpleTestServer {
         }
 
         private boolean isSolid(double px, double py) {
-            int gridX = (int) (px / tileSize);
-            int gridY = (int) (py / tileSize);
-            if (gridX < 0 || gridY < 0 || gridX >= map.length || gridY >= map[0].length)
-                return true;
-            int t = map[gridX][gridY];
-            if (t == 1 || t == 2)
-                return true;
-            if (bombs != null) {
-                for (Bomb b : bombs) {
-                    if (!b.exploded && b.isSolid && b.x == gridX && b.y == gridY)
-                        return true;
-                }
-            }
-            return false;
+            // Satu bit test: tembok / breakable / bom solid (lihat TileMap)
+            return map.blocksMovement((int) (px / tileSize), (int) (py / tileSize));
         }
     }
 
@@ -772,96 +1062,120 @@ public class SimpleTestServer {
         }
     }
 
-    static class PlayerState {
-        int id;
-        double x, y;
-        boolean up, down, left, right;
-        boolean place;
-        String currentState = "IDLE";
-        String currentDir = "DOWN";
-        boolean dead = false;
-        double deadTimer = 0;
-        final int DEFAULT_MAX_BOMBS = 1;
-        final int DEFAULT_RANGE = 2;
-        final double DEFAULT_SPEED = 100.0;
-        int activeBombs = 0;
-        double speed = DEFAULT_SPEED;
-        int bonusBombStock = 0;
-        boolean hasFirePowerUp = false;
-        double speedTimer = 0;
-
-        public PlayerState(int id, double x, double y) {
-            this.id = id;
-            this.x = x;
-            this.y = y;
-        }
-
-        public void updateAnimLogic() {
-            if (dead) {
-                currentState = "DEAD";
-                return;
-            }
-            boolean isMoving = up || down || left || right;
-            if (isMoving) {
-                currentState = "WALK";
-                if (down)
-                    currentDir = "DOWN";
-                else if (up)
-                    currentDir = "UP";
-                else if (left)
-                    currentDir = "LEFT";
-                else if (right)
-                    currentDir = "RIGHT";
-            } else {
-                currentState = "IDLE";
-            }
-        }
-    }
-
     // ===================== CLIENT HANDLER (UPDATED) =======================
-    static class ClientHandler implements Runnable {
-        private Socket socket;
-        private PrintWriter out;
-        private BufferedReader in;
+    static class ClientHandler {
+        private final Connection connection;
         private Room currentRoom;
         public int playerId;
+        private volatile boolean binary = false; // Hasil negosiasi PROTO;BINARY
+
+        // Baseline delta STATE: seq snapshot terakhir yang di-ACK client (-1 = belum ada)
+        volatile int ackedSeq = -1;
+        volatile boolean resyncRequested = false;
+
+        // Budget input per client (hanya thread pembaca koneksi ini); sisanya dibuang
+        private static final int INPUT_BURST = 20;
+        private static final int INPUT_RATE_PER_SECOND = 30;
+        private final TokenBucket inputBudget = new TokenBucket(INPUT_BURST, INPUT_RATE_PER_SECOND);
+        volatile long droppedInputs = 0;
+
+        // RTT dari ACK snapshot (rata-rata bergerak), -1 = belum ada / client teks
+        volatile long rttNanos = -1;
 
-        public ClientHandler(Socket socket) {
-            this.socket = socket;
+        public ClientHandler(Connection connection) {
+            this.connection = connection;
         }
 
-        @Override
-        public void run() {
-            try {
-                out = new PrintWriter(socket.getOutputStream(), true);
-                in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-                sendRoomList();
-                String msg;
-                while ((msg = in.readLine()) != null)
-                    handleMessage(msg);
-            } catch (IOException e) {
-            } finally {
-                lobbyClients.remove(this);
-                if (currentRoom != null)
-                    currentRoom.removePlayer(this, playerId);
-                System.out.println("Client disconnected.");
-            }
+        void onConnected() {
+            sendRoomList();
+        }
+
+        void onDisconnected() {
+            lobbyClients.remove(this);
+            if (currentRoom != null)
+                currentRoom.removePlayer(this, playerId);
+            System.out.println("Client disconnected.");
         }
 
         public void send(String msg) {
-            if (out != null)
-                out.println(msg);
+            send(Packet.text(msg));
+        }
+
+        /** Enqueue lalu langsung flush (pesan di luar tick room). */
+        public void send(Packet packet) {
+            queue(packet);
+            connection.flush();
+        }
+
+        // synchronized: urutan pesan tetap benar saat mode protocol berganti
+        synchronized void queue(Packet packet) {
+            enqueue(packet, packet.isConflatable());
+        }
+
+        /**
+         * Satu tick sebagai batch: header (boleh null), event, lalu STATE (boleh null).
+         * Semua tidak conflatable, supaya jumlah pesan di header tetap cocok.
+         */
+        synchronized void queueBatch(Packet header, List<Packet> events, Packet state) {
+            if (header != null)
+                enqueue(header, false);
+            for (Packet e : events)
+                enqueue(e, false);
+            if (state != null)
+                enqueue(state, false);
+        }
+
+        private void enqueue(Packet packet, boolean conflatable) {
+            byte[] data = binary ? packet.frame() : packet.textLine();
+            ServerMetrics.recordSent(packet.opcode(), data.length);
+            connection.enqueue(data, conflatable);
+        }
+
+        void flush() {
+            connection.flush();
+        }
+
+        OutboundQueue outboundQueue() {
+            return connection.outbound();
+        }
+
+        String getRemoteAddress() {
+            return connection.getRemoteAddress();
+        }
+
+        boolean isBinary() {
+            return binary;
+        }
+
+        private synchronized void switchToBinary() {
+            if (binary)
+                return;
+            connection.send(Wire.HELLO_BINARY); // Balasan terakhir dalam bentuk teks
+            binary = true;
         }
 
         public void sendRoomList() {
             SimpleTestServer.broadcastRoomList();
         }
 
-        private void handleMessage(String msg) {
+        // Dipanggil oleh thread transport (thread socket / IoLoop NIO), satu per koneksi
+        void handleMessage(String msg) {
             try {
                 String[] parts = msg.split(";");
                 String command = parts[0];
-                if (command.equals("CREATE_ROOM")) {
+                if (command.equals(Wire.ACK)) {
+                    int seq = Integer.parseInt(parts[1]) & SnapshotRing.SEQ_MASK;
+                    ackedSeq = seq;
+                    Room room = currentRoom;
+                    long sample = room != null ? room.snapshotAge(seq) : -1;
+                    if (sample > 0)
+                        rttNanos = rttNanos < 0 ? sample : (rttNanos * 7 + sample) / 8;
+                } else if (command.equals(Wire.RESYNC)) {
+                    resyncRequested = true;
+                } else if (command.equals("PROTO")) {
+                    if (msg.equals(Wire.HELLO_BINARY))
+                        switchToBinary();
+                } else if (command.equals("CREATE_ROOM")) {
                     String name = parts[1];
                     boolean isPrivate = Boolean.parseBoolean(parts[2]);
                     String pass = parts.length > 3 ? parts[3] : "";
@@ -869,7 +1183,7 @@ public class SimpleTestServer {
                         if (rooms.containsKey(name)) {
                             Room r = rooms.get(name);
                             if (r.clients.isEmpty()) {
-                                r.isRunning = false;
+                                r.stopGameLoop();
                                 rooms.remove(name);
                             } else {
                                 send("ERROR;Room Name Taken");
@@ -926,12 +1240,9 @@ public class SimpleTestServer {
                     }
                 } else if (command.equals("START_GAME") && currentRoom != null) {
                     if (currentRoom.host == this && currentRoom.clients.size() >= 1) {
-                        // Thread pool sudah jalan di startGameLoop, jadi panggil restartGame langsung
-                        // tapi karena restartGame itu synchronized dan berat, sebaiknya tetap di thread
-                        // terpisah atau di executor
-                        // Tapi karena executor loop-nya periodic, kita jalankan di thread baru biar ga
-                        // blocking loop utama handler
-                        new Thread(() -> currentRoom.restartGame()).start();
+                        // Restart dijalankan di worker milik room (fase input tick berikutnya)
+                        Room room = currentRoom;
+                        room.post(room::restartGame);
                     }
                 }
                 // ... Sisa command (VOTE_REMATCH, INPUT, ACTION) SAMA PERSIS ...
@@ -943,57 +1254,31 @@ public class SimpleTestServer {
                         currentRoom.broadcast("REMATCH_UPDATE;" + currentVotes + ";" + totalPlayers);
                     }
                 } else if (command.equals("INPUT") && currentRoom != null) {
-                    if (currentRoom.players.size() > playerId) {
-                        PlayerState p = currentRoom.players.get(playerId);
-                        String key = parts[1];
-                        boolean pressed = Boolean.parseBoolean(parts[2]);
-                        switch (key) {
-                            case "UP" -> p.up = pressed;
-                            case "DOWN" -> p.down = pressed;
-                            case "LEFT" -> p.left = pressed;
-                            case "RIGHT" -> p.right = pressed;
-                        }
-                    }
+                    int key = PlayerTable.inputBit(parts[1]);
+                    boolean pressed = Boolean.parseBoolean(parts[2]);
+                    // Lepas tombol selalu diterima: kalau dibuang, player jalan terus
+                    if (key != 0)
+                        offerInput(InputQueue.move(playerId, key, pressed), pressed);
                 } else if (command.equals("ACTION") && parts.length > 1 && parts[1].equals("PLACE_BOMB")
                         && currentRoom != null) {
-                    if (playerId < currentRoom.players.size()) {
-                        PlayerState p = currentRoom.players.get(playerId);
-                        int currentCapacity = p.DEFAULT_MAX_BOMBS + p.bonusBombStock;
-                        if (p.activeBombs < currentCapacity && !p.dead) {
-                            int tx = (int) ((p.x + 16) / 32);
-                            int ty = (int) ((p.y + 16) / 32);
-                            boolean canPlace = !currentRoom.isSolidTile(tx, ty);
-                            for (Bomb b : currentRoom.bombs) {
-                                if (b.x == tx && b.y == ty) {
-                                    canPlace = false;
-                                    break;
-                                }
-                            }
-                            if (canPlace) {
-                                int range = p.DEFAULT_RANGE;
-                                if (p.hasFirePowerUp) {
-                                    range += 1;
-                                    p.hasFirePowerUp = false;
-                                }
-                                Bomb bomb = new Bomb(tx, ty, playerId, range, currentRoom);
-                                currentRoom.bombs.add(bomb);
-                                p.activeBombs++;
-                                if (p.activeBombs > p.DEFAULT_MAX_BOMBS && p.bonusBombStock > 0)
-                                    p.bonusBombStock--;
-                                currentRoom.broadcast("BOMB_PLACED;" + tx + "," + ty + ";" + playerId);
-                            }
-                        }
-                    }
+                    offerInput(InputQueue.placeBomb(playerId), true);
                 }
             } catch (Exception e) {
             }
         }
 
+        private void offerInput(long input, boolean limited) {
+            if ((limited && !inputBudget.tryAcquire()) || !currentRoom.offerInput(input))
+                droppedInputs++;
+        }
+
         private void joinRoom(Room room) {
             lobbyClients.remove(this);
             if (currentRoom != null)
                 currentRoom.removePlayer(this, playerId);
             currentRoom = room;
+            ackedSeq = -1; // Baseline room lama tidak berlaku
+            rttNanos = -1;
             int newId = room.addPlayer(this);
             send("RESET_GAME_STATE");
             send("YOUR_ID;" + newId);
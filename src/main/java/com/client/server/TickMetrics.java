@@ -0,0 +1,126 @@
+package com.client.server;
+
+/**
+ * Durasi tick satu room per fase, pengganti println per tick.
+ *
+ * Worker pemilik room memanggil startTick(), mark(fase) setiap fase selesai,
+ * lalu endTick(). Tiap REPORT_TICKS tick, worker yang sama membuat ringkasan
+ * (p50 / p99 / max per fase + jumlah tick yang melewati budget), menyimpannya
+ * di lastSummary() untuk dibaca thread lain, lalu mengosongkan histogram.
+ * Tick yang batal (room di-park tanpa simulasi) cukup tidak di-mark / endTick();
+ * startTick() berikutnya menimpa waktunya.
+ */
+final class TickMetrics {
+
+    enum Phase {
+        INPUT, MOVE, TIMERS, RULES, SNAPSHOT, FLUSH, TOTAL
+    }
+
+    /** Ringkasan satu periode; immutable, aman dibaca dari thread mana pun. */
+    static final class Summary {
+        final long ticks;
+        final long overBudget;
+        private final long[] p50;
+        private final long[] p99;
+        private final long[] max;
+
+        private Summary(long ticks, long overBudget, long[] p50, long[] p99, long[] max) {
+            this.ticks = ticks;
+            this.overBudget = overBudget;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.max = max;
+        }
+
+        long p50(Phase phase) {
+            return p50[phase.ordinal()];
+        }
+
+        long max(Phase phase) {
+            return max[phase.ordinal()];
+        }
+
+        long p99(Phase phase) {
+            return p99[phase.ordinal()];
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("ticks=").append(ticks).append(" over=").append(overBudget);
+            for (Phase phase : Phase.values()) {
+                int i = phase.ordinal();
+                sb.append(" | ").append(phase.name().toLowerCase())
+                        .append(" p50=").append(millis(p50[i]))
+                        .append(" p99=").append(millis(p99[i]))
+                        .append(" max=").append(millis(max[i]));
+            }
+            return sb.toString();
+        }
+
+        private static String millis(long nanos) {
+            return String.format("%.3f", nanos / 1_000_000.0);
+        }
+    }
+
+    static final int REPORT_TICKS = 625; // ~10 detik pada 16 ms per tick
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final long budgetNanos;
+    private final LogHistogram[] histograms = new LogHistogram[PHASES.length];
+    private long tickStart;
+    private long phaseStart;
+    private long ticks = 0;
+    private long overBudget = 0;
+    private volatile Summary lastSummary;
+
+    TickMetrics(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+        for (int i = 0; i < histograms.length; i++)
+            histograms[i] = new LogHistogram();
+    }
+
+    void startTick() {
+        tickStart = phaseStart = System.nanoTime();
+    }
+
+    /** Fase ini selesai: catat waktu sejak mark() / startTick() sebelumnya. */
+    void mark(Phase phase) {
+        long now = System.nanoTime();
+        histograms[phase.ordinal()].record(now - phaseStart);
+        phaseStart = now;
+    }
+
+    /**
+     * Tutup tick ini.
+     * @return ringkasan baru jika periode laporan baru selesai, selain itu null
+     */
+    Summary endTick() {
+        long elapsed = System.nanoTime() - tickStart;
+        histograms[Phase.TOTAL.ordinal()].record(elapsed);
+        if (elapsed > budgetNanos)
+            overBudget++;
+        if (++ticks < REPORT_TICKS)
+            return null;
+        long[] p50 = new long[PHASES.length];
+        long[] p99 = new long[PHASES.length];
+        long[] max = new long[PHASES.length];
+        for (int i = 0; i < PHASES.length; i++) {
+            p50[i] = histograms[i].percentile(0.50);
+            p99[i] = histograms[i].percentile(0.99);
+            max[i] = histograms[i].max();
+            histograms[i].reset();
+        }
+        Summary summary = new Summary(ticks, overBudget, p50, p99, max);
+        lastSummary = summary;
+        ticks = 0;
+        overBudget = 0;
+        return summary;
+    }
+
+    /** Ringkasan periode terakhir, null jika belum ada. */
+    Summary lastSummary() {
+        return lastSummary;
+    }
+}
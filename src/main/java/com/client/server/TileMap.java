@@ -0,0 +1,196 @@
+package com.client.server;
+
+/**
+ * Map tile room dalam bentuk bitset, untuk query yang sering di tick:
+ * collision (satu bit per tile) dan panjang ray ledakan (beberapa operasi bit
+ * per arah, bukan cek tile satu per satu).
+ *
+ * Setiap layer disimpan dua kali: per baris (ray kiri/kanan) dan per kolom
+ * (ray atas/bawah), masing-masing dipadatkan ke long[]. Grid int[x][y] tetap
+ * disimpan untuk dikirim ke client (MAP); semua perubahan WAJIB lewat
+ * setTile() supaya grid dan bitset tetap sinkron.
+ *
+ * Hanya disentuh oleh worker pemilik room.
+ */
+final class TileMap {
+
+    static final int FLOOR = 0;
+    static final int WALL = 1;
+    static final int BREAKABLE = 2;
+
+    private final int cols;
+    private final int rows;
+    private final int[][] grid;
+
+    private final int rowWords; // long per baris (panjang = cols)
+    private final int colWords; // long per kolom (panjang = rows)
+
+    // Layer per baris: index = y * rowWords + (x >>> 6)
+    private final long[] wallRows;
+    private final long[] breakableRows;
+    private final long[] bombRows;
+    private final long[] solidBombRows; // Bom yang sudah tidak bisa dilewati player
+
+    // Layer per kolom: index = x * colWords + (y >>> 6)
+    private final long[] wallCols;
+    private final long[] breakableCols;
+    private final long[] bombCols;
+
+    TileMap(int[][] grid) {
+        this.grid = grid;
+        this.cols = grid.length;
+        this.rows = grid[0].length;
+        this.rowWords = (cols + 63) >>> 6;
+        this.colWords = (rows + 63) >>> 6;
+        wallRows = new long[rows * rowWords];
+        breakableRows = new long[rows * rowWords];
+        bombRows = new long[rows * rowWords];
+        solidBombRows = new long[rows * rowWords];
+        wallCols = new long[cols * colWords];
+        breakableCols = new long[cols * colWords];
+        bombCols = new long[cols * colWords];
+        for (int x = 0; x < cols; x++) {
+            for (int y = 0; y < rows; y++)
+                setTile(x, y, grid[x][y]);
+        }
+    }
+
+    int getCols() {
+        return cols;
+    }
+
+    int getRows() {
+        return rows;
+    }
+
+    /** Grid live (map[x][y]); hanya untuk dibaca / di-copy ke packet. */
+    int[][] grid() {
+        return grid;
+    }
+
+    boolean inBounds(int x, int y) {
+        return x >= 0 && y >= 0 && x < cols && y < rows;
+    }
+
+    int getTile(int x, int y) {
+        return grid[x][y];
+    }
+
+    void setTile(int x, int y, int tile) {
+        grid[x][y] = tile;
+        assign(wallRows, wallCols, x, y, tile == WALL);
+        assign(breakableRows, breakableCols, x, y, tile == BREAKABLE);
+    }
+
+    /** Di luar map dianggap tembok. */
+    boolean isWall(int x, int y) {
+        return !inBounds(x, y) || test(wallRows, y * rowWords, x);
+    }
+
+    boolean isBreakable(int x, int y) {
+        return inBounds(x, y) && test(breakableRows, y * rowWords, x);
+    }
+
+    boolean hasBomb(int x, int y) {
+        return inBounds(x, y) && test(bombRows, y * rowWords, x);
+    }
+
+    void setBomb(int x, int y, boolean present) {
+        assign(bombRows, bombCols, x, y, present);
+        if (!present)
+            setSolidBomb(x, y, false);
+    }
+
+    void setSolidBomb(int x, int y, boolean solid) {
+        int i = y * rowWords + (x >>> 6);
+        if (solid)
+            solidBombRows[i] |= 1L << x;
+        else
+            solidBombRows[i] &= ~(1L << x);
+    }
+
+    /** Collision player: tembok, tembok hancur-able, atau bom yang sudah solid. */
+    boolean blocksMovement(int x, int y) {
+        if (!inBounds(x, y))
+            return true;
+        int i = y * rowWords + (x >>> 6);
+        long bit = 1L << x;
+        return ((wallRows[i] | breakableRows[i] | solidBombRows[i]) & bit) != 0;
+    }
+
+    /**
+     * Berapa tile api menjalar dari (x, y) ke arah (dx, dy), maksimal maxLength.
+     * Tembok menghentikan api sebelum tile-nya; tembok breakable dan bom ikut
+     * terkena (tile terakhir yang dihitung) lalu menghentikan api.
+     */
+    int rayLength(int x, int y, int dx, int dy, int maxLength) {
+        if (maxLength <= 0)
+            return 0;
+        int obstacle;
+        boolean stopsBefore;
+        if (dy == 0) {
+            int base = y * rowWords;
+            obstacle = dx > 0 ? nextSet(base, rowWords, cols, x + 1, wallRows, breakableRows, bombRows)
+                    : prevSet(base, x - 1, wallRows, breakableRows, bombRows);
+            stopsBefore = obstacle < 0 || obstacle >= cols || test(wallRows, base, obstacle);
+        } else {
+            int base = x * colWords;
+            obstacle = dy > 0 ? nextSet(base, colWords, rows, y + 1, wallCols, breakableCols, bombCols)
+                    : prevSet(base, y - 1, wallCols, breakableCols, bombCols);
+            stopsBefore = obstacle < 0 || obstacle >= rows || test(wallCols, base, obstacle);
+        }
+        int from = dy == 0 ? x : y;
+        int distance = Math.abs(obstacle - from); // Tile ke-distance adalah penghalang
+        if (distance > maxLength)
+            return maxLength;
+        return stopsBefore ? distance - 1 : distance;
+    }
+
+    // ===================== OPERASI BIT =======================
+
+    private void assign(long[] byRow, long[] byCol, int x, int y, boolean value) {
+        int r = y * rowWords + (x >>> 6);
+        int c = x * colWords + (y >>> 6);
+        if (value) {
+            byRow[r] |= 1L << x;
+            byCol[c] |= 1L << y;
+        } else {
+            byRow[r] &= ~(1L << x);
+            byCol[c] &= ~(1L << y);
+        }
+    }
+
+    private static boolean test(long[] bits, int base, int i) {
+        return (bits[base + (i >>> 6)] & (1L << i)) != 0;
+    }
+
+    /** Index bit pertama >= from pada gabungan tiga layer, atau length (ujung map = tembok). */
+    private static int nextSet(int base, int words, int length, int from, long[] a, long[] b, long[] c) {
+        if (from >= length)
+            return length;
+        int w = from >>> 6;
+        long word = (a[base + w] | b[base + w] | c[base + w]) & (-1L << from);
+        while (true) {
+            if (word != 0)
+                return Math.min(length, (w << 6) + Long.numberOfTrailingZeros(word));
+            if (++w == words)
+                return length;
+            word = a[base + w] | b[base + w] | c[base + w];
+        }
+    }
+
+    /** Index bit terakhir <= from pada gabungan tiga layer, atau -1 (ujung map = tembok). */
+    private static int prevSet(int base, int from, long[] a, long[] b, long[] c) {
+        if (from < 0)
+            return -1;
+        int w = from >>> 6;
+        long word = (a[base + w] | b[base + w] | c[base + w]) & (-1L >>> (63 - (from & 63)));
+        while (true) {
+            if (word != 0)
+                return (w << 6) + 63 - Long.numberOfLeadingZeros(word);
+            if (--w < 0)
+                return -1;
+            word = a[base + w] | b[base + w] | c[base + w];
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.client.server;
+
+import java.util.Arrays;
+
+import com.client.server.SimpleTestServer.Bomb;
+import com.client.server.SimpleTestServer.Item;
+
+/**
+ * Index isi tile room: bom, item, dan player yang sedang berdiri di tiap tile.
+ *
+ * Pengganti scan list di tick (bombAt, pickup item, player kena api): semua
+ * jadi lookup per tile. Satu tile maksimal satu bom & satu item; player
+ * (slot PlayerTable) disimpan sebagai linked list per tile lewat array (head
+ * per tile, next per slot) supaya tidak ada alokasi saat player pindah tile.
+ *
+ * Tile player = tile tempat titik tengah sprite berada (sama seperti
+ * placeBomb). Semua perubahan posisi WAJIB diikuti movePlayer().
+ *
+ * Hanya disentuh oleh worker pemilik room.
+ */
+final class TileOccupancy {
+
+    private static final int TILE_SIZE = 32;
+
+    private final int cols;
+    private final int rows;
+    private final Bomb[] bombs;
+    private final Item[] items;
+
+    // Bucket player per tile: index = y * cols + x, -1 = kosong
+    private final int[] playerHead;
+    // Per slot PlayerTable
+    private int[] playerNext = new int[4];
+    private int[] playerTile = new int[4];
+
+    TileOccupancy(int cols, int rows) {
+        this.cols = cols;
+        this.rows = rows;
+        this.bombs = new Bomb[cols * rows];
+        this.items = new Item[cols * rows];
+        this.playerHead = new int[cols * rows];
+        Arrays.fill(playerHead, -1);
+    }
+
+    /** Tile (x atau y) dari koordinat pixel pojok kiri atas sprite. */
+    static int tileOf(double pixel) {
+        return (int) ((pixel + TILE_SIZE / 2) / TILE_SIZE);
+    }
+
+    private boolean inBounds(int x, int y) {
+        return x >= 0 && y >= 0 && x < cols && y < rows;
+    }
+
+    // ===================== BOM & ITEM =======================
+
+    Bomb bombAt(int x, int y) {
+        return inBounds(x, y) ? bombs[y * cols + x] : null;
+    }
+
+    void setBomb(int x, int y, Bomb bomb) {
+        bombs[y * cols + x] = bomb;
+    }
+
+    Item itemAt(int x, int y) {
+        return inBounds(x, y) ? items[y * cols + x] : null;
+    }
+
+    void setItem(int x, int y, Item item) {
+        items[y * cols + x] = item;
+    }
+
+    // ===================== PLAYER =======================
+
+    void addPlayer(int slot, double px, double py) {
+        if (slot >= playerTile.length) {
+            int n = Math.max(slot + 1, playerTile.length * 2);
+            playerNext = Arrays.copyOf(playerNext, n);
+            playerTile = Arrays.copyOf(playerTile, n);
+        }
+        playerTile[slot] = -1;
+        movePlayer(slot, px, py);
+    }
+
+    /** Update bucket setelah posisi player berubah; murah jika masih di tile yang sama. */
+    void movePlayer(int slot, double px, double py) {
+        int tx = tileOf(px);
+        int ty = tileOf(py);
+        int tile = inBounds(tx, ty) ? ty * cols + tx : -1;
+        int old = playerTile[slot];
+        if (tile == old)
+            return;
+        if (old >= 0)
+            unlinkPlayer(slot, old);
+        playerTile[slot] = tile;
+        if (tile >= 0) {
+            playerNext[slot] = playerHead[tile];
+            playerHead[tile] = slot;
+        }
+    }
+
+    private void unlinkPlayer(int slot, int tile) {
+        int prev = -1;
+        for (int s = playerHead[tile]; s >= 0; prev = s, s = playerNext[s]) {
+            if (s == slot) {
+                if (prev < 0)
+                    playerHead[tile] = playerNext[s];
+                else
+                    playerNext[prev] = playerNext[s];
+                return;
+            }
+        }
+    }
+
+    /** Slot player pertama di tile, atau -1; lanjutkan dengan nextPlayer(). */
+    int firstPlayer(int x, int y) {
+        return inBounds(x, y) ? playerHead[y * cols + x] : -1;
+    }
+
+    int nextPlayer(int slot) {
+        return playerNext[slot];
+    }
+}
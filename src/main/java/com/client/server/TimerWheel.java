@@ -0,0 +1,159 @@
+package com.client.server;
+
+import java.util.Arrays;
+
+/**
+ * Timing wheel bertingkat per room, satuan waktunya tick (bukan detik).
+ *
+ * Event berwaktu (sumbu bom, bom jadi solid, speed boost habis, delay game
+ * over, tahap arena) dijadwalkan sekali lalu dijalankan tepat di tick-nya.
+ * Biaya per tick = O(event yang jatuh tempo), bukan O(entity hidup), dan
+ * waktunya tidak ikut bergeser walau scheduler telat.
+ *
+ * 4 level x 64 slot: level 0 = 64 tick ke depan, level berikutnya 64x lebih
+ * kasar; timer di level atas turun (cascade) saat level bawahnya berputar.
+ * Jangkauan maksimal 2^24 tick (~74 jam pada 60 Hz).
+ *
+ * Hanya disentuh oleh worker pemilik room.
+ */
+final class TimerWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    static final long MAX_DELAY = 1L << (SLOT_BITS * LEVELS);
+
+    /** Handle timer yang sudah dijadwalkan, dipakai untuk cancel(). */
+    static final class Timer {
+        private final Runnable task;
+        private final long deadline;
+        private Timer prev;
+        private Timer next;
+        private int level = -1; // -1 = tidak terjadwal (sudah jalan / dibatalkan)
+        private int slot;
+
+        private Timer(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        boolean isPending() {
+            return level >= 0;
+        }
+
+        long getDeadline() {
+            return deadline;
+        }
+    }
+
+    // Doubly linked list per slot; tails supaya append tetap O(1)
+    private final Timer[][] slots = new Timer[LEVELS][SLOTS];
+    private final Timer[][] tails = new Timer[LEVELS][SLOTS];
+    private long now = 0;
+    private int pending = 0;
+
+    /** Tick terakhir yang sudah diproses advance(). */
+    long now() {
+        return now;
+    }
+
+    int size() {
+        return pending;
+    }
+
+    /** Jalankan task tepat delayTicks tick dari sekarang (minimal 1, yaitu tick berikutnya). */
+    Timer schedule(long delayTicks, Runnable task) {
+        long delay = Math.max(1, delayTicks);
+        if (delay >= MAX_DELAY)
+            throw new IllegalArgumentException("Delay too long: " + delayTicks);
+        Timer t = new Timer(task, now + delay);
+        insert(t);
+        pending++;
+        return t;
+    }
+
+    /** Batalkan timer (aman untuk null / timer yang sudah jalan). */
+    void cancel(Timer t) {
+        if (t != null && t.level >= 0) {
+            unlink(t);
+            pending--;
+        }
+    }
+
+    /** Maju satu tick dan jalankan semua timer yang jatuh tempo, urut sesuai jadwal masuk. */
+    void advance() {
+        now++;
+        // Turunkan timer level atas yang slot-nya baru tercapai (dari level tertinggi)
+        for (int level = LEVELS - 1; level >= 1; level--) {
+            if ((now & ((1L << (SLOT_BITS * level)) - 1)) == 0)
+                cascade(level, (int) ((now >>> (SLOT_BITS * level)) & SLOT_MASK));
+        }
+        int slot = (int) (now & SLOT_MASK);
+        Timer t;
+        // Ambil satu per satu: task boleh cancel timer lain di slot yang sama
+        while ((t = slots[0][slot]) != null) {
+            unlink(t);
+            pending--;
+            t.task.run();
+        }
+    }
+
+    /** Buang semua timer (restart / game over). */
+    void clear() {
+        for (Timer[] level : slots) {
+            for (int i = 0; i < SLOTS; i++) {
+                for (Timer t = level[i]; t != null; t = t.next)
+                    t.level = -1;
+                level[i] = null;
+            }
+        }
+        for (Timer[] level : tails)
+            Arrays.fill(level, null);
+        pending = 0;
+    }
+
+    private void cascade(int level, int slot) {
+        Timer t = slots[level][slot];
+        slots[level][slot] = null;
+        tails[level][slot] = null;
+        while (t != null) {
+            Timer next = t.next;
+            insert(t);
+            t = next;
+        }
+    }
+
+    private void insert(Timer t) {
+        long delta = t.deadline - now;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1))))
+            level++;
+        int slot = (int) ((t.deadline >>> (SLOT_BITS * level)) & SLOT_MASK);
+        // Tambah di ekor supaya timer dengan deadline sama jalan sesuai urutan schedule()
+        t.level = level;
+        t.slot = slot;
+        t.next = null;
+        Timer tail = tails[level][slot];
+        t.prev = tail;
+        if (tail == null)
+            slots[level][slot] = t;
+        else
+            tail.next = t;
+        tails[level][slot] = t;
+    }
+
+    private void unlink(Timer t) {
+        if (t.prev != null)
+            t.prev.next = t.next;
+        else
+            slots[t.level][t.slot] = t.next;
+        if (t.next != null)
+            t.next.prev = t.prev;
+        else
+            tails[t.level][t.slot] = t.prev;
+        t.prev = null;
+        t.next = null;
+        t.level = -1;
+    }
+}
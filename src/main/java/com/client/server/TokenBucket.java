@@ -0,0 +1,34 @@
+package com.client.server;
+
+/**
+ * Token bucket sederhana untuk membatasi input per client: burst sampai
+ * capacity, lalu rata-rata refillPerSecond. Request di luar budget dibuang
+ * sebelum menyentuh room, jadi client yang spam tidak memperlambat tick
+ * semua orang.
+ *
+ * Tidak thread-safe: dipakai hanya oleh thread pembaca koneksi pemiliknya.
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(double capacity, double refillPerSecond) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000.0;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    boolean tryAcquire() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+        lastRefill = now;
+        if (tokens < 1)
+            return false;
+        tokens -= 1;
+        return true;
+    }
+}
@@ -0,0 +1,493 @@
+package com.client.server.tools;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.SplittableRandom;
+
+import com.client.protocol.FrameReader;
+import com.client.protocol.Opcode;
+import com.client.protocol.Wire;
+import com.client.server.LogHistogram;
+
+/**
+ * Load generator: bot headless ke server yang sedang jalan, untuk mencari
+ * kapasitas satu mesin server.
+ *
+ * Untuk setiap tahap (jumlah room) dibuka rooms x players koneksi. Bot pertama
+ * tiap room membuat room (CREATE_ROOM), sisanya JOIN_ROOM, lalu host menekan
+ * START_GAME setelah room penuh. Selama game bot mengirim INPUT dan
+ * ACTION;PLACE_BOMB (random walk atau pola tetap); setelah GAME_OVER host
+ * memulai game baru. Balasan server di-decode dengan format yang sama dengan
+ * PacketParser (baris teks, atau frame biner setelah PROTO;BINARY + ACK).
+ *
+ * Setiap tahap dilaporkan: koneksi per detik, jarak antar STATE yang diterima
+ * bot (= latency tick server + jaringan), jitter (selisih dua jarak berturut-
+ * turut), dan throughput broadcast (pesan & byte per detik).
+ *
+ * Semua bot dilayani satu thread selector, jadi di mesin yang sama dengan
+ * server angka jitter ikut memuat waktu CPU generator ini sendiri.
+ *
+ * Pemakaian:
+ *   java -cp Server.jar com.client.server.tools.BotLoadGenerator
+ *        [--host=127.0.0.1] [--port=5000] [--rooms=10,100,1000] [--players=2]
+ *        [--proto=binary|text] [--behavior=random|scripted] [--duration=30] [--connect-rate=500]
+ */
+public class BotLoadGenerator {
+
+    private static final String[] KEYS = { "UP", "DOWN", "LEFT", "RIGHT" };
+    private static final int ACK_INTERVAL = 3; // Sama dengan PacketParser
+    private static final long RESTART_DELAY_NANOS = 1_000_000_000L;
+    private static final long WARMUP_TIMEOUT_NANOS = 15_000_000_000L;
+
+    private String host = "127.0.0.1";
+    private int port = 5000;
+    private int[] roomSteps = { 10, 100, 1000 };
+    private int playersPerRoom = 2;
+    private boolean binaryProto = true;
+    private boolean scripted = false;
+    private int durationSeconds = 30;
+    private int connectRate = 500;
+
+    public static void main(String[] args) throws Exception {
+        BotLoadGenerator gen = new BotLoadGenerator();
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            switch (kv[0]) {
+                case "--host" -> gen.host = kv[1];
+                case "--port" -> gen.port = Integer.parseInt(kv[1]);
+                case "--rooms" -> {
+                    String[] parts = kv[1].split(",");
+                    gen.roomSteps = new int[parts.length];
+                    for (int i = 0; i < parts.length; i++)
+                        gen.roomSteps[i] = Integer.parseInt(parts[i].trim());
+                }
+                case "--players" -> gen.playersPerRoom = Math.max(1, Math.min(4, Integer.parseInt(kv[1])));
+                case "--proto" -> gen.binaryProto = !kv[1].equals("text");
+                case "--behavior" -> gen.scripted = kv[1].equals("scripted");
+                case "--duration" -> gen.durationSeconds = Integer.parseInt(kv[1]);
+                case "--connect-rate" -> gen.connectRate = Math.max(1, Integer.parseInt(kv[1]));
+                default -> System.err.println("Unknown option: " + arg);
+            }
+        }
+
+        System.out.printf("Target %s:%d, %d player/room, proto=%s, behavior=%s, %ds per step%n", gen.host, gen.port,
+                gen.playersPerRoom, gen.binaryProto ? "binary" : "text", gen.scripted ? "scripted" : "random",
+                gen.durationSeconds);
+        System.out.printf("%-6s %6s %8s %8s %9s %9s %9s %9s %9s %10s %8s %5s%n", "ROOMS", "BOTS", "CONN/S",
+                "PLAYING", "STATE/S", "GAP_P50", "GAP_P99", "GAP_MAX", "JIT_P99", "MSG/S", "KB/S", "ERR");
+        for (int step = 0; step < gen.roomSteps.length; step++)
+            new Step(gen, step, gen.roomSteps[step]).run();
+    }
+
+    // ===================== SATU BOT =======================
+
+    private static final class Bot {
+        final int room;
+        final boolean host;
+        final SplittableRandom random;
+        SocketChannel channel;
+        SelectionKey key;
+        final ByteBuffer in = ByteBuffer.allocate(64 * 1024);
+        final ArrayDeque<ByteBuffer> out = new ArrayDeque<>();
+
+        boolean connected = false;
+        boolean binary = false; // Server sudah membalas HELLO_BINARY
+        boolean joinSent = false;
+        boolean startRequested = false;
+        boolean playing = false;
+        long restartAt = 0; // Host: kirim START_GAME lagi pada waktu ini (0 = tidak)
+
+        long nextAction = 0;
+        String heldKey = null;
+        int scriptStep = 0;
+        int snapshotsSinceAck = 0;
+        long lastState = 0;
+        long lastInterval = -1;
+
+        Bot(int index, int room, boolean host) {
+            this.room = room;
+            this.host = host;
+            this.random = new SplittableRandom(index * 31L + 7);
+        }
+    }
+
+    // ===================== SATU TAHAP (JUMLAH ROOM) =======================
+
+    private static final class Step {
+        private final BotLoadGenerator gen;
+        private final int rooms;
+        private final String roomPrefix;
+        private final Bot[] bots;
+        private final boolean[] roomCreated;
+        private final boolean[] roomStarted;
+        private final FrameReader reader = new FrameReader();
+        private Selector selector;
+
+        // Statistik (hanya thread ini); di-reset saat pengukuran dimulai
+        private final LogHistogram stateGap = new LogHistogram();
+        private final LogHistogram jitter = new LogHistogram();
+        private long messages = 0;
+        private long bytes = 0;
+        private long states = 0;
+        private int errors = 0;
+        private int connected = 0;
+        private int failed = 0;
+
+        Step(BotLoadGenerator gen, int index, int rooms) {
+            this.gen = gen;
+            this.rooms = rooms;
+            // Nama unik per tahap & proses: room tahap sebelumnya mungkin belum dibersihkan
+            this.roomPrefix = "bot" + ProcessHandle.current().pid() + "-" + index + "-";
+            this.bots = new Bot[rooms * gen.playersPerRoom];
+            this.roomCreated = new boolean[rooms];
+            this.roomStarted = new boolean[rooms];
+            for (int i = 0; i < bots.length; i++) {
+                int room = i / gen.playersPerRoom;
+                bots[i] = new Bot(i, room, i % gen.playersPerRoom == 0);
+            }
+        }
+
+        void run() throws IOException {
+            selector = Selector.open();
+            try {
+                // 1. Buka koneksi dengan laju --connect-rate
+                long start = System.nanoTime();
+                int opened = 0;
+                while (connected + failed < bots.length) {
+                    long now = System.nanoTime();
+                    long allowed = Math.min(bots.length, (now - start) * gen.connectRate / 1_000_000_000L + 1);
+                    while (opened < allowed)
+                        open(bots[opened++]);
+                    poll(1);
+                }
+                double connectSeconds = (System.nanoTime() - start) / 1e9;
+
+                // 2. Tunggu semua room mulai main (atau timeout)
+                long deadline = System.nanoTime() + WARMUP_TIMEOUT_NANOS;
+                while (startedRooms() < rooms && System.nanoTime() < deadline)
+                    poll(1);
+
+                // 3. Ukur
+                stateGap.reset();
+                jitter.reset();
+                messages = bytes = states = 0;
+                long measureStart = System.nanoTime();
+                long measureEnd = measureStart + gen.durationSeconds * 1_000_000_000L;
+                while (System.nanoTime() < measureEnd)
+                    poll(1);
+                double seconds = (System.nanoTime() - measureStart) / 1e9;
+
+                System.out.printf("%-6d %6d %8.0f %8d %9.0f %9.2f %9.2f %9.2f %9.2f %10.0f %8.0f %5d%n", rooms,
+                        connected, connected / connectSeconds, playingRooms(), states / seconds,
+                        millis(stateGap.percentile(0.50)), millis(stateGap.percentile(0.99)),
+                        millis(stateGap.max()), millis(jitter.percentile(0.99)), messages / seconds,
+                        bytes / seconds / 1024, errors + failed);
+            } finally {
+                for (Bot b : bots) {
+                    if (b.channel != null)
+                        b.channel.close();
+                }
+                selector.close();
+            }
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+
+        private int startedRooms() {
+            int n = 0;
+            for (boolean s : roomStarted) {
+                if (s)
+                    n++;
+            }
+            return n;
+        }
+
+        private int playingRooms() {
+            int n = 0;
+            for (Bot b : bots) {
+                if (b.host && b.playing)
+                    n++;
+            }
+            return n;
+        }
+
+        private void open(Bot bot) {
+            try {
+                bot.channel = SocketChannel.open();
+                bot.channel.configureBlocking(false);
+                bot.channel.socket().setTcpNoDelay(true);
+                bot.key = bot.channel.register(selector, SelectionKey.OP_CONNECT, bot);
+                if (bot.channel.connect(new InetSocketAddress(gen.host, gen.port)))
+                    onConnected(bot);
+            } catch (IOException e) {
+                failed++;
+            }
+        }
+
+        private void onConnected(Bot bot) {
+            bot.connected = true;
+            connected++;
+            bot.key.interestOps(SelectionKey.OP_READ);
+            if (gen.binaryProto)
+                send(bot, Wire.HELLO_BINARY);
+            if (bot.host) {
+                send(bot, "CREATE_ROOM;" + roomPrefix + bot.room + ";false");
+            } else if (roomCreated[bot.room]) {
+                join(bot);
+            }
+        }
+
+        private void join(Bot bot) {
+            if (bot.joinSent)
+                return;
+            bot.joinSent = true;
+            send(bot, "JOIN_ROOM;" + roomPrefix + bot.room);
+        }
+
+        /** Satu putaran: I/O siap, lalu aksi bot yang sudah jatuh tempo. */
+        private void poll(long timeoutMillis) throws IOException {
+            selector.select(timeoutMillis);
+            for (SelectionKey k : selector.selectedKeys()) {
+                Bot bot = (Bot) k.attachment();
+                try {
+                    if (!k.isValid())
+                        continue;
+                    if (k.isConnectable() && bot.channel.finishConnect())
+                        onConnected(bot);
+                    if (k.isValid() && k.isReadable())
+                        read(bot);
+                    if (k.isValid() && k.isWritable())
+                        drain(bot);
+                } catch (IOException e) {
+                    if (!bot.connected)
+                        failed++;
+                    else
+                        errors++;
+                    bot.playing = false;
+                    k.cancel();
+                    bot.channel.close();
+                }
+            }
+            selector.selectedKeys().clear();
+
+            long now = System.nanoTime();
+            for (Bot bot : bots) {
+                if (bot.restartAt != 0 && now >= bot.restartAt) {
+                    bot.restartAt = 0;
+                    bot.startRequested = true;
+                    send(bot, "START_GAME");
+                }
+                if (bot.playing && now >= bot.nextAction)
+                    act(bot, now);
+            }
+        }
+
+        // ===================== INPUT BOT =======================
+
+        private void act(Bot bot, long now) {
+            if (gen.scripted) {
+                // Pola tetap: kanan, bawah, kiri, atas (400 ms per arah), bom di awal siklus
+                if (bot.heldKey != null)
+                    send(bot, "INPUT;" + bot.heldKey + ";false");
+                bot.heldKey = KEYS[(3 + bot.scriptStep) % KEYS.length];
+                send(bot, "INPUT;" + bot.heldKey + ";true");
+                if (bot.scriptStep % KEYS.length == 0)
+                    send(bot, "ACTION;PLACE_BOMB");
+                bot.scriptStep++;
+                bot.nextAction = now + 400_000_000L;
+                return;
+            }
+            // Random walk: ganti arah (atau diam) tiap 150-600 ms, kadang taruh bom
+            if (bot.heldKey != null)
+                send(bot, "INPUT;" + bot.heldKey + ";false");
+            int pick = bot.random.nextInt(KEYS.length + 1);
+            bot.heldKey = pick < KEYS.length ? KEYS[pick] : null;
+            if (bot.heldKey != null)
+                send(bot, "INPUT;" + bot.heldKey + ";true");
+            if (bot.random.nextInt(100) < 15)
+                send(bot, "ACTION;PLACE_BOMB");
+            bot.nextAction = now + (150 + bot.random.nextInt(450)) * 1_000_000L;
+        }
+
+        // ===================== KIRIM =======================
+
+        private void send(Bot bot, String line) {
+            if (bot.channel == null || !bot.channel.isOpen())
+                return;
+            ByteBuffer buf = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+            try {
+                if (bot.out.isEmpty())
+                    bot.channel.write(buf);
+                if (buf.hasRemaining()) {
+                    bot.out.add(buf);
+                    bot.key.interestOps(bot.key.interestOps() | SelectionKey.OP_WRITE);
+                }
+            } catch (IOException e) {
+                errors++;
+            }
+        }
+
+        private void drain(Bot bot) throws IOException {
+            ByteBuffer buf;
+            while ((buf = bot.out.peek()) != null) {
+                bot.channel.write(buf);
+                if (buf.hasRemaining())
+                    return;
+                bot.out.poll();
+            }
+            bot.key.interestOps(SelectionKey.OP_READ);
+        }
+
+        // ===================== TERIMA & DECODE =======================
+
+        private void read(Bot bot) throws IOException {
+            int n = bot.channel.read(bot.in);
+            if (n < 0)
+                throw new IOException("Server closed connection");
+            bytes += n;
+            ByteBuffer in = bot.in;
+            in.flip();
+            byte[] a = in.array();
+            while (in.hasRemaining()) {
+                int pos = in.position();
+                if (!bot.binary) {
+                    // Baris teks: [isi]\n
+                    int end = -1;
+                    for (int i = pos; i < in.limit(); i++) {
+                        if (a[i] == '\n') {
+                            end = i;
+                            break;
+                        }
+                    }
+                    if (end < 0)
+                        break;
+                    in.position(end + 1);
+                    onLine(bot, new String(a, pos, end - pos, StandardCharsets.UTF_8).trim());
+                } else {
+                    // Frame biner: [u16 panjang][opcode + payload]
+                    if (in.remaining() < 2)
+                        break;
+                    int length = ((a[pos] & 0xFF) << 8) | (a[pos + 1] & 0xFF);
+                    if (in.remaining() < 2 + length)
+                        break;
+                    in.position(pos + 2 + length);
+                    onFrame(bot, reader.wrap(a, pos + 2, length));
+                }
+            }
+            in.compact();
+        }
+
+        private void onFrame(Bot bot, FrameReader r) {
+            messages++;
+            int opcode = r.readUByte();
+            switch (opcode) {
+                case Opcode.TEXT -> onText(bot, r.readString());
+                case Opcode.STATE -> {
+                    onState(bot);
+                    acknowledge(bot, r.readShort(), true);
+                }
+                case Opcode.STATE_DELTA -> {
+                    onState(bot);
+                    acknowledge(bot, r.readShort(), false);
+                }
+                default -> {
+                    // Event gameplay lain cukup dihitung
+                }
+            }
+        }
+
+        private void onLine(Bot bot, String line) {
+            if (line.equals(Wire.HELLO_BINARY)) {
+                bot.binary = true; // Semua byte setelah baris ini berupa frame
+                return;
+            }
+            messages++;
+            onText(bot, line);
+        }
+
+        private void onText(Bot bot, String line) {
+            int sep = line.indexOf(';');
+            String command = sep < 0 ? line : line.substring(0, sep);
+            switch (command) {
+                case "STATE" -> onState(bot);
+                case "YOUR_ID" -> {
+                    if (bot.host && !roomCreated[bot.room]) {
+                        // Room sudah ada: bot lain di room ini yang sudah terkoneksi boleh join
+                        roomCreated[bot.room] = true;
+                        int first = bot.room * gen.playersPerRoom;
+                        for (int i = first + 1; i < first + gen.playersPerRoom; i++) {
+                            if (bots[i].connected)
+                                join(bots[i]);
+                        }
+                    }
+                }
+                case "ROOM_UPDATE" -> {
+                    // ROOM_UPDATE;hostId;id1,id2,...
+                    String[] parts = line.split(";");
+                    int members = 0;
+                    if (parts.length > 2) {
+                        for (String id : parts[2].split(",")) {
+                            if (!id.isEmpty())
+                                members++;
+                        }
+                    }
+                    if (bot.host && !bot.startRequested && !bot.playing && members >= gen.playersPerRoom) {
+                        bot.startRequested = true;
+                        send(bot, "START_GAME");
+                    }
+                }
+                case "GAME_STARTED" -> {
+                    bot.playing = true;
+                    bot.heldKey = null;
+                    bot.nextAction = System.nanoTime();
+                    bot.lastState = 0;
+                    bot.lastInterval = -1;
+                    roomStarted[bot.room] = true;
+                }
+                case "GAME_OVER" -> {
+                    bot.playing = false;
+                    bot.heldKey = null;
+                    if (bot.host) {
+                        bot.startRequested = false;
+                        bot.restartAt = System.nanoTime() + RESTART_DELAY_NANOS;
+                    }
+                }
+                case "ERROR" -> {
+                    if (errors++ < 5)
+                        System.err.println("[BOT] " + line);
+                }
+                default -> {
+                }
+            }
+        }
+
+        private void onState(Bot bot) {
+            states++;
+            long now = System.nanoTime();
+            if (bot.lastState != 0) {
+                long interval = now - bot.lastState;
+                stateGap.record(interval);
+                if (bot.lastInterval >= 0)
+                    jitter.record(Math.abs(interval - bot.lastInterval));
+                bot.lastInterval = interval;
+            }
+            bot.lastState = now;
+        }
+
+        // Seperti PacketParser: keyframe langsung di-ACK, delta tiap ACK_INTERVAL snapshot
+        private void acknowledge(Bot bot, int seq, boolean keyframe) {
+            if (keyframe || ++bot.snapshotsSinceAck >= ACK_INTERVAL) {
+                bot.snapshotsSinceAck = 0;
+                send(bot, Wire.ACK + ";" + seq);
+            }
+        }
+    }
+}
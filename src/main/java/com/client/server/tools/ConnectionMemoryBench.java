@@ -0,0 +1,184 @@
+package com.client.server.tools;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Benchmark perbandingan mode koneksi server: jumlah koneksi vs memori (RSS).
+ *
+ * Setiap mode dijalankan sebagai proses server terpisah, lalu koneksi idle
+ * (seperti player di lobby) dibuka bertahap. Setelah setiap tahap dicatat
+ * RSS dan jumlah thread proses server dari /proc (khusus Linux).
+ *
+ * Pemakaian:
+ *   java -cp Server.jar com.client.server.tools.ConnectionMemoryBench
+ *        [--steps=100,500,1000,2000] [--modes=blocking-platform,blocking-virtual,nio] [--port=5600]
+ */
+public class ConnectionMemoryBench {
+
+    public static void main(String[] args) throws Exception {
+        int[] steps = { 100, 500, 1000, 2000 };
+        String[] modes = { "blocking-platform", "blocking-virtual", "nio" };
+        int port = 5600;
+
+        for (String arg : args) {
+            String[] kv = arg.split("=", 2);
+            switch (kv[0]) {
+                case "--steps" -> {
+                    String[] parts = kv[1].split(",");
+                    steps = new int[parts.length];
+                    for (int i = 0; i < parts.length; i++)
+                        steps[i] = Integer.parseInt(parts[i].trim());
+                }
+                case "--modes" -> modes = kv[1].split(",");
+                case "--port" -> port = Integer.parseInt(kv[1]);
+                default -> System.err.println("Unknown option: " + arg);
+            }
+        }
+
+        System.out.printf("%-18s %8s %12s %8s %14s%n", "MODE", "CONNS", "RSS(MB)", "THREADS", "KB/CONN");
+        for (String mode : modes)
+            runMode(mode.trim(), steps, port++);
+    }
+
+    private static void runMode(String mode, int[] steps, int port) throws Exception {
+        List<String> cmd = new ArrayList<>();
+        cmd.add(ProcessHandle.current().info().command().orElse("java"));
+        cmd.add("-cp");
+        cmd.add(System.getProperty("java.class.path"));
+        cmd.add("com.client.server.SimpleTestServer");
+        cmd.add("--port=" + port);
+        switch (mode) {
+            case "blocking-platform" -> { cmd.add("--io=blocking"); cmd.add("--threads=platform"); }
+            case "blocking-virtual" -> { cmd.add("--io=blocking"); cmd.add("--threads=virtual"); }
+            case "nio" -> cmd.add("--io=nio");
+            default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+
+        Process server = new ProcessBuilder(cmd)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        Drainer drainer = new Drainer();
+        Thread drainThread = new Thread(drainer, "bench-drain");
+        drainThread.setDaemon(true);
+        drainThread.start();
+
+        try {
+            waitForPort(port);
+            long baseRss = readStatusKb(server.pid(), "VmRSS:");
+            printRow(mode, 0, baseRss, readStatusKb(server.pid(), "Threads:"), 0);
+
+            int open = 0;
+            for (int target : steps) {
+                while (open < target) {
+                    SocketChannel ch = SocketChannel.open(new InetSocketAddress("127.0.0.1", port));
+                    ch.configureBlocking(false);
+                    drainer.add(ch);
+                    open++;
+                }
+                Thread.sleep(1500); // Biar server selesai setup thread/buffer
+                long rss = readStatusKb(server.pid(), "VmRSS:");
+                long perConn = rss > 0 ? (rss - baseRss) / Math.max(1, open) : -1;
+                printRow(mode, open, rss, readStatusKb(server.pid(), "Threads:"), perConn);
+            }
+        } finally {
+            drainer.close();
+            server.destroy();
+            server.waitFor();
+        }
+    }
+
+    private static void printRow(String mode, int conns, long rssKb, long threads, long perConnKb) {
+        System.out.printf("%-18s %8d %12s %8s %14s%n", mode, conns,
+                rssKb < 0 ? "n/a" : String.format("%.1f", rssKb / 1024.0),
+                threads < 0 ? "n/a" : String.valueOf(threads),
+                perConnKb < 0 ? "n/a" : String.valueOf(perConnKb));
+    }
+
+    private static void waitForPort(int port) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            try {
+                new Socket("127.0.0.1", port).close(); // Hanya cek port sudah listen
+                return;
+            } catch (IOException e) {
+                Thread.sleep(100);
+            }
+        }
+        throw new IllegalStateException("Server did not start on port " + port);
+    }
+
+    /** Baca satu field dari /proc/[pid]/status (dalam kB / angka). -1 jika tidak tersedia. */
+    private static long readStatusKb(long pid, String field) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/" + pid + "/status"))) {
+                if (line.startsWith(field))
+                    return Long.parseLong(line.substring(field.length()).replace("kB", "").trim());
+            }
+        } catch (IOException | NumberFormatException e) {
+        }
+        return -1;
+    }
+
+    /** Baca & buang semua data dari koneksi bench, supaya server tidak pernah tertahan saat kirim. */
+    private static final class Drainer implements Runnable {
+        private final Selector selector;
+        private final Queue<SocketChannel> pending = new ConcurrentLinkedQueue<>();
+        private final List<SocketChannel> channels = new ArrayList<>();
+        private volatile boolean running = true;
+
+        Drainer() throws IOException {
+            selector = Selector.open();
+        }
+
+        void add(SocketChannel ch) {
+            pending.add(ch);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            ByteBuffer buf = ByteBuffer.allocateDirect(64 * 1024);
+            while (running) {
+                try {
+                    selector.select(200);
+                    SocketChannel ch;
+                    while ((ch = pending.poll()) != null) {
+                        ch.register(selector, SelectionKey.OP_READ);
+                        channels.add(ch);
+                    }
+                    for (SelectionKey key : selector.selectedKeys()) {
+                        buf.clear();
+                        if (((SocketChannel) key.channel()).read(buf) < 0)
+                            key.cancel();
+                    }
+                    selector.selectedKeys().clear();
+                } catch (IOException e) {
+                    break;
+                }
+            }
+            for (SocketChannel ch : channels) {
+                try {
+                    ch.close();
+                } catch (IOException e) {
+                }
+            }
+        }
+
+        void close() {
+            running = false;
+            selector.wakeup();
+        }
+    }
+}
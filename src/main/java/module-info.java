@@ -4,6 +4,11 @@ module com.client {
     requires javafx.fxml;
     requires javafx.media;
 
+    // Metrics server (MetricsEndpoint): JMX, counter alokasi HotSpot, HTTP loopback
+    requires java.management;
+    requires jdk.management;
+    requires jdk.httpserver;
+
     // Mengizinkan semua subpackages com.client.* diakses publik
     exports com.client;
     exports com.client.core;
@@ -11,6 +16,8 @@ module com.client {
     exports com.client.render;
     exports com.client.ui;
     exports com.client.network;
+    exports com.client.protocol;
+    exports com.client.server to java.management; // Interface MXBean
 
     // Mengizinkan JavaFX (FXML) & Gson menggunakan reflection
     opens com.client to javafx.fxml, javafx.media;